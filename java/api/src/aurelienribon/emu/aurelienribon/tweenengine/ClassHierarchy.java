@@ -0,0 +1,15 @@
+package aurelienribon.tweenengine;
+
+/**
+ * GWT version of the reflection helpers. GWT can't list the interfaces of a
+ * class, so the accessors registered with interfaces are ignored.
+ *
+ * @author Aurelien Ribon | http://www.aurelienribon.com/
+ */
+class ClassHierarchy {
+	private static final Class<?>[] NO_INTERFACES = new Class<?>[0];
+
+	public static Class<?>[] getInterfaces(Class<?> someClass) {
+		return NO_INTERFACES;
+	}
+}
@@ -15,48 +15,73 @@ package aurelienribon.tweenengine;
  * @author Aurelien Ribon | http://www.aurelienribon.com/
  */
 public abstract class BaseTween<T> {
+	// Flags (the bits 0x1000 to 0x8000 are used by the subclasses, the update
+	// interval minus one is stored in bits 16 to 23, and the callback
+	// triggers in bits 24 to 31)
+	static final int ITERATION_STEP = 0x01;
+	static final int YOYO = 0x02;
+	static final int STARTED = 0x04; // the object is started
+	static final int INITIALIZED = 0x08; // after the delay
+	static final int FINISHED = 0x10; // all repetitions are done
+	static final int KILLED = 0x20; // kill() was called
+	static final int PAUSED = 0x40; // pause() was called
+	static final int AUTO_REMOVE = 0x80;
+	static final int AUTO_START = 0x100;
+	static final int POOLED = 0x200; // waiting in its pool
+	static final int PARKED = 0x400; // in the parked heap of its manager
+	static final int SET_ASIDE = 0x800; // in the paused list of its manager
+	private static final int INTERVAL_SHIFT = 16;
+	private static final int TRIGGERS_SHIFT = 24;
+	private static final int DEFAULT_FLAGS = AUTO_REMOVE | AUTO_START | TweenCallback.COMPLETE << TRIGGERS_SHIFT;
+
 	// General
+	int flags;
+	int generation; // incremented each time the object is sent to its pool
 	private int step;
 	private int repeatCnt;
-	private boolean isIterationStep;
-	private boolean isYoyo;
 
 	// Timings
 	protected float delay;
 	protected float duration;
 	private float repeatDelay;
 	private float currentTime;
-	private float deltaTime;
-	private boolean isStarted; // true when the object is started
-	private boolean isInitialized; // true after the delay
-	private boolean isFinished; // true when all repetitions are done
-	private boolean isKilled; // true if kill() was called
-	private boolean isPaused; // true if pause() was called
 
 	// Misc
 	private TweenCallback callback;
-	private int callbackTriggers;
 	private Object userData;
 
-	// Package access
-	boolean isAutoRemoveEnabled;
-	boolean isAutoStartEnabled;
+	// Package access (see TweenManager)
+	TweenManager manager; // manager of the object, or of its root timeline
+	int managedSeq; // insertion order in the manager
+	int managedSlot; // manager step of the last update, or position in the parked heap or in the paused list
 
 	// -------------------------------------------------------------------------
 
 	protected void reset() {
+		flags = DEFAULT_FLAGS;
 		step = -2;
 		repeatCnt = 0;
-		isIterationStep = isYoyo = false;
 
-		delay = duration = repeatDelay = currentTime = deltaTime = 0;
-		isStarted = isInitialized = isFinished = isKilled = isPaused = false;
+		delay = duration = repeatDelay = currentTime = 0;
 
 		callback = null;
-		callbackTriggers = TweenCallback.COMPLETE;
 		userData = null;
 
-		isAutoRemoveEnabled = isAutoStartEnabled = true;
+		manager = null;
+		managedSeq = 0;
+		managedSlot = 0;
+	}
+
+	/**
+	 * Returns true if the object is in the state given by {@link #reset()}.
+	 * Used by the diagnostic mode to detect the objects that were modified
+	 * while waiting in their pool.
+	 */
+	boolean isReset() {
+		return (flags & ~POOLED) == DEFAULT_FLAGS
+			&& step == -2 && repeatCnt == 0
+			&& delay == 0 && duration == 0 && repeatDelay == 0 && currentTime == 0
+			&& callback == null && userData == null && manager == null;
 	}
 
 	// -------------------------------------------------------------------------
@@ -82,9 +107,10 @@ public abstract class BaseTween<T> {
 	 * @return The current object, for chaining instructions.
 	 */
 	public T start() {
+		if (TweenDebug.isEnabled) TweenDebug.onStart(this);
 		build();
 		currentTime = 0;
-		isStarted = true;
+		flags |= STARTED;
 		return (T) this;
 	}
 
@@ -113,9 +139,14 @@ public abstract class BaseTween<T> {
 	/**
 	 * Kills the tween or timeline. If you are using a TweenManager, this object
 	 * will be removed automatically.
+	 * <p/>
+	 *
+	 * A managed object must be killed from the thread updating its manager.
+	 * Use {@link TweenManager#postKill(BaseTween)} from other threads.
 	 */
 	public void kill() {
-		isKilled = true;
+		flags |= KILLED;
+		if (manager != null) manager.wake(this);
 	}
 
 	/**
@@ -128,16 +159,22 @@ public abstract class BaseTween<T> {
 
 	/**
 	 * Pauses the tween or timeline. Further update calls won't have any effect.
+	 * A managed object must be paused from the thread updating its manager.
+	 * Use {@link TweenManager#postPause(BaseTween)} from other threads.
 	 */
 	public void pause() {
-		isPaused = true;
+		flags |= PAUSED;
+		if (manager != null) manager.wake(this);
 	}
 
 	/**
 	 * Resumes the tween or timeline. Has no effect is it was no already paused.
+	 * A managed object must be resumed from the thread updating its manager.
+	 * Use {@link TweenManager#postResume(BaseTween)} from other threads.
 	 */
 	public void resume() {
-		isPaused = false;
+		flags &= ~PAUSED;
+		if (manager != null) manager.wake(this);
 	}
 
 	/**
@@ -149,10 +186,10 @@ public abstract class BaseTween<T> {
 	 * @return The current tween or timeline, for chaining instructions.
 	 */
 	public T repeat(int count, float delay) {
-		if (isStarted) throw new RuntimeException("You can't change the repetitions of a tween or timeline once it is started");
+		if ((flags & STARTED) != 0) throw new RuntimeException("You can't change the repetitions of a tween or timeline once it is started");
 		repeatCnt = count;
 		repeatDelay = delay >= 0 ? delay : 0;
-		isYoyo = false;
+		flags &= ~YOYO;
 		return (T) this;
 	}
 
@@ -166,10 +203,10 @@ public abstract class BaseTween<T> {
 	 * @return The current tween or timeline, for chaining instructions.
 	 */
 	public T repeatYoyo(int count, float delay) {
-		if (isStarted) throw new RuntimeException("You can't change the repetitions of a tween or timeline once it is started");
+		if ((flags & STARTED) != 0) throw new RuntimeException("You can't change the repetitions of a tween or timeline once it is started");
 		repeatCnt = count;
 		repeatDelay = delay >= 0 ? delay : 0;
-		isYoyo = true;
+		flags |= YOYO;
 		return (T) this;
 	}
 
@@ -212,7 +249,7 @@ public abstract class BaseTween<T> {
 	 * @see TweenCallback
 	 */
 	public T setCallbackTriggers(int flags) {
-		this.callbackTriggers = flags;
+		this.flags = (this.flags & ~(0xFF << TRIGGERS_SHIFT)) | (flags & 0xFF) << TRIGGERS_SHIFT;
 		return (T) this;
 	}
 
@@ -304,7 +341,7 @@ public abstract class BaseTween<T> {
 	 * Returns true if the tween or timeline has been started.
 	 */
 	public boolean isStarted() {
-		return isStarted;
+		return (flags & STARTED) != 0;
 	}
 
 	/**
@@ -313,7 +350,7 @@ public abstract class BaseTween<T> {
 	 * takes place right after the initial delay, if any.
 	 */
 	public boolean isInitialized() {
-		return isInitialized;
+		return (flags & INITIALIZED) != 0;
 	}
 
 	/**
@@ -322,7 +359,7 @@ public abstract class BaseTween<T> {
 	 * want to call {@link free()} to reuse the object later.
 	 */
 	public boolean isFinished() {
-		return isFinished || isKilled;
+		return (flags & (FINISHED | KILLED)) != 0;
 	}
 
 	/**
@@ -330,14 +367,25 @@ public abstract class BaseTween<T> {
 	 * every two iterations, the animation will be played backwards.
 	 */
 	public boolean isYoyo() {
-		return isYoyo;
+		return (flags & YOYO) != 0;
 	}
 
 	/**
 	 * Returns true if the tween or timeline is currently paused.
 	 */
 	public boolean isPaused() {
-		return isPaused;
+		return (flags & PAUSED) != 0;
+	}
+
+	/**
+	 * Gets the generation of the object. It is incremented each time the
+	 * object is sent back to its pool, so a reference kept along with its
+	 * generation can tell if the object was recycled since.
+	 *
+	 * @see TweenHandle
+	 */
+	public int getGeneration() {
+		return generation;
 	}
 
 	// -------------------------------------------------------------------------
@@ -363,7 +411,7 @@ public abstract class BaseTween<T> {
 	protected void forceToStart() {
 		currentTime = -delay;
 		step = -1;
-		isIterationStep = false;
+		flags &= ~ITERATION_STEP;
 		if (isReverse(0)) forceEndValues();
 		else forceStartValues();
 	}
@@ -371,23 +419,48 @@ public abstract class BaseTween<T> {
 	protected void forceToEnd(float time) {
 		currentTime = time - getFullDuration();
 		step = repeatCnt*2 + 1;
-		isIterationStep = false;
+		flags &= ~ITERATION_STEP;
 		if (isReverse(repeatCnt*2)) forceStartValues();
 		else forceEndValues();
 	}
 
 	protected void callCallback(int type) {
-		if (callback != null && (callbackTriggers & type) > 0) callback.onEvent(type, this);
+		if (callback != null && (flags >>> TRIGGERS_SHIFT & type) > 0) {
+			if (manager != null && manager.isDeferringCallbacks) manager.deferCallback(callback, type, this);
+			else callback.onEvent(type, this);
+		}
 	}
 
 	protected boolean isReverse(int step) {
-		return isYoyo && Math.abs(step%4) == 2;
+		return (flags & YOYO) != 0 && Math.abs(step%4) == 2;
 	}
 
 	protected boolean isValid(int step) {
 		return (step >= 0 && step <= repeatCnt*2) || repeatCnt < 0;
 	}
 
+	/**
+	 * Adds some time to an object that is still waiting for the end of its
+	 * delay, without updating anything. Used by the managers to credit the
+	 * time elapsed while the object was parked.
+	 */
+	void advanceDelay(float delta) {
+		currentTime += delta;
+	}
+
+	/**
+	 * Gets the number of manager updates between two updates of the object,
+	 * from 1 to 256.
+	 */
+	int getUpdateInterval() {
+		return (flags >>> INTERVAL_SHIFT & 0xFF) + 1;
+	}
+
+	void setUpdateInterval(int interval) {
+		interval = Math.min(Math.max(interval, 1), 256);
+		flags = (flags & ~(0xFF << INTERVAL_SHIFT)) | (interval-1) << INTERVAL_SHIFT;
+	}
+
 	protected void killTarget(Object target) {
 		if (containsTarget(target)) kill();
 	}
@@ -411,66 +484,68 @@ public abstract class BaseTween<T> {
 	 * @param delta A delta time between now and the last call.
 	 */
 	public void update(float delta) {
-		if (!isStarted || isPaused || isKilled) return;
-
-		deltaTime = delta;
+		if ((flags & (STARTED | PAUSED | KILLED)) != STARTED) return;
 
-		if (!isInitialized) {
-			initialize();
+		if ((flags & INITIALIZED) == 0) {
+			delta = initialize(delta);
 		}
 
-		if (isInitialized) {
-			testRelaunch();
-			updateStep();
+		if ((flags & INITIALIZED) != 0) {
+			delta = testRelaunch(delta);
+			delta = updateStep(delta);
 			testCompletion();
 		}
 
-		currentTime += deltaTime;
-		deltaTime = 0;
+		currentTime += delta;
 	}
 
-	private void initialize() {
+	// The update steps below consume the given delta time, and return what
+	// is left of it.
+
+	private float initialize(float deltaTime) {
 		if (currentTime+deltaTime >= delay) {
 			initializeOverride();
-			isInitialized = true;
-			isIterationStep = true;
+			flags |= INITIALIZED;
+			flags |= ITERATION_STEP;
 			step = 0;
 			deltaTime -= delay-currentTime;
 			currentTime = 0;
 			callCallback(TweenCallback.BEGIN);
 			callCallback(TweenCallback.START);
 		}
+		return deltaTime;
 	}
 
-	private void testRelaunch() {
-		if (!isIterationStep && repeatCnt >= 0 && step < 0 && currentTime+deltaTime >= 0) {
+	private float testRelaunch(float deltaTime) {
+		if ((flags & ITERATION_STEP) == 0 && repeatCnt >= 0 && step < 0 && currentTime+deltaTime >= 0) {
 			assert step == -1;
-			isIterationStep = true;
+			flags |= ITERATION_STEP;
 			step = 0;
 			float delta = 0-currentTime;
 			deltaTime -= delta;
 			currentTime = 0;
 			callCallback(TweenCallback.BEGIN);
 			callCallback(TweenCallback.START);
-			updateOverride(step, step-1, isIterationStep, delta);
+			updateOverride(step, step-1, true, delta);
 
-		} else if (!isIterationStep && repeatCnt >= 0 && step > repeatCnt*2 && currentTime+deltaTime < 0) {
+		} else if ((flags & ITERATION_STEP) == 0 && repeatCnt >= 0 && step > repeatCnt*2 && currentTime+deltaTime < 0) {
 			assert step == repeatCnt*2 + 1;
-			isIterationStep = true;
+			flags |= ITERATION_STEP;
 			step = repeatCnt*2;
 			float delta = 0-currentTime;
 			deltaTime -= delta;
 			currentTime = duration;
 			callCallback(TweenCallback.BACK_BEGIN);
 			callCallback(TweenCallback.BACK_START);
-			updateOverride(step, step+1, isIterationStep, delta);
+			updateOverride(step, step+1, true, delta);
 		}
+		return deltaTime;
 	}
 
-	private void updateStep() {
+	private float updateStep(float deltaTime) {
 		while (isValid(step)) {
-			if (!isIterationStep && currentTime+deltaTime <= 0) {
-				isIterationStep = true;
+			if ((flags & ITERATION_STEP) == 0 && currentTime+deltaTime <= 0) {
+				flags |= ITERATION_STEP;
 				step -= 1;
 
 				float delta = 0-currentTime;
@@ -479,10 +554,10 @@ public abstract class BaseTween<T> {
 
 				if (isReverse(step)) forceStartValues(); else forceEndValues();
 				callCallback(TweenCallback.BACK_START);
-				updateOverride(step, step+1, isIterationStep, delta);
+				updateOverride(step, step+1, true, delta);
 
-			} else if (!isIterationStep && currentTime+deltaTime >= repeatDelay) {
-				isIterationStep = true;
+			} else if ((flags & ITERATION_STEP) == 0 && currentTime+deltaTime >= repeatDelay) {
+				flags |= ITERATION_STEP;
 				step += 1;
 
 				float delta = repeatDelay-currentTime;
@@ -491,41 +566,41 @@ public abstract class BaseTween<T> {
 
 				if (isReverse(step)) forceEndValues(); else forceStartValues();
 				callCallback(TweenCallback.START);
-				updateOverride(step, step-1, isIterationStep, delta);
+				updateOverride(step, step-1, true, delta);
 
-			} else if (isIterationStep && currentTime+deltaTime < 0) {
-				isIterationStep = false;
+			} else if ((flags & ITERATION_STEP) != 0 && currentTime+deltaTime < 0) {
+				flags &= ~ITERATION_STEP;
 				step -= 1;
 
 				float delta = 0-currentTime;
 				deltaTime -= delta;
 				currentTime = 0;
 
-				updateOverride(step, step+1, isIterationStep, delta);
+				updateOverride(step, step+1, false, delta);
 				callCallback(TweenCallback.BACK_END);
 
 				if (step < 0 && repeatCnt >= 0) callCallback(TweenCallback.BACK_COMPLETE);
 				else currentTime = repeatDelay;
 
-			} else if (isIterationStep && currentTime+deltaTime > duration) {
-				isIterationStep = false;
+			} else if ((flags & ITERATION_STEP) != 0 && currentTime+deltaTime > duration) {
+				flags &= ~ITERATION_STEP;
 				step += 1;
 
 				float delta = duration-currentTime;
 				deltaTime -= delta;
 				currentTime = duration;
 
-				updateOverride(step, step-1, isIterationStep, delta);
+				updateOverride(step, step-1, false, delta);
 				callCallback(TweenCallback.END);
 
 				if (step > repeatCnt*2 && repeatCnt >= 0) callCallback(TweenCallback.COMPLETE);
 				currentTime = 0;
 
-			} else if (isIterationStep) {
+			} else if ((flags & ITERATION_STEP) != 0) {
 				float delta = deltaTime;
 				deltaTime -= delta;
 				currentTime += delta;
-				updateOverride(step, step, isIterationStep, delta);
+				updateOverride(step, step, true, delta);
 				break;
 
 			} else {
@@ -535,9 +610,11 @@ public abstract class BaseTween<T> {
 				break;
 			}
 		}
+		return deltaTime;
 	}
 
 	private void testCompletion() {
-		isFinished = repeatCnt >= 0 && (step > repeatCnt*2 || step < 0);
+		if (repeatCnt >= 0 && (step > repeatCnt*2 || step < 0)) flags |= FINISHED;
+		else flags &= ~FINISHED;
 	}
 }
@@ -0,0 +1,36 @@
+package aurelienribon.tweenengine;
+
+/**
+ * A BatchKernel evaluates the easing equations and the interpolations of a
+ * {@link TweenBatch}. The batch calls it on contiguous runs of slots, so that
+ * an implementation can process many slots at once, for instance with SIMD
+ * instructions.
+ * <p/>
+ *
+ * The default kernel, {@link ScalarBatchKernel}, processes one slot at a time
+ * and supports every equation. Other implementations may only support some
+ * equations, the batch falling back to the default kernel for the other ones.
+ *
+ * @see TweenBatch#setKernel(BatchKernel)
+ * @author Aurelien Ribon | http://www.aurelienribon.com/
+ */
+public interface BatchKernel {
+
+	/**
+	 * Returns true if the kernel can evaluate the given equation.
+	 */
+	public boolean supports(TweenEquation equation);
+
+	/**
+	 * Replaces every ratio between fromIdx (inclusive) and toIdx (exclusive)
+	 * with its value through the given easing equation.
+	 */
+	public void ease(TweenEquation equation, float[] ratios, int fromIdx, int toIdx);
+
+	/**
+	 * Interpolates the values of the slots between fromSlot (inclusive) and
+	 * toSlot (exclusive). Each slot owns attrsCnt consecutive values in the
+	 * start, target and output arrays, and one ratio in the ratios array.
+	 */
+	public void interpolate(float[] ratios, float[] startValues, float[] targetValues, float[] values, int attrsCnt, int fromSlot, int toSlot);
+}
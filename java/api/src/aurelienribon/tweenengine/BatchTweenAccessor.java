@@ -0,0 +1,44 @@
+package aurelienribon.tweenengine;
+
+/**
+ * An extension of the TweenAccessor interface receiving the new values of
+ * many targets at once. It is meant for data-oriented storages, like the
+ * component arrays of an entity system, where one call per frame is much
+ * cheaper than one call per tween.
+ * <p/>
+ *
+ * During the update of a {@link TweenManager}, the tweens using a batch
+ * accessor don't call {@link #setValues(Object, int, float[])}: their values
+ * are collected, grouped by accessor and tween type, and each group is sent
+ * to the accessor in a single call, once every object is updated. Outside of
+ * a manager update, the regular setValues method is still used.
+ * <p/>
+ *
+ * Since the writes happen at the end of the update, a callback called during
+ * the update sees the values of the previous update. A tween starting during
+ * the update does see the latest values: the recorded values are written
+ * before it reads its target, in an additional call. Also, if two tweens of
+ * different types animate the same attribute of a target, the order in which
+ * their groups are written is not guaranteed.
+ *
+ * @see TweenAccessor
+ * @author Aurelien Ribon | http://www.aurelienribon.com/
+ */
+public interface BatchTweenAccessor<T> extends TweenAccessor<T> {
+
+	/**
+	 * Sets the values of several targets. Called once per update for each
+	 * tween type with updated targets, or more if tweens start during the
+	 * update. A target may appear several times if
+	 * several tweens animate it, in which case the last values win.
+	 *
+	 * @param targets The targets, from index 0 to targetsCnt-1. They are all
+	 * instances of T, but the array itself is an Object array.
+	 * @param targetsCnt The number of targets.
+	 * @param tweenType An integer representing the tween type.
+	 * @param newValues The new values, valuesCnt consecutive values for each
+	 * target, in the same order as the targets.
+	 * @param valuesCnt The number of values of each target.
+	 */
+	public void setValues(Object[] targets, int targetsCnt, int tweenType, float[] newValues, int valuesCnt);
+}
@@ -0,0 +1,66 @@
+package aurelienribon.tweenengine;
+
+/**
+ * The values written by the tweens sharing a batch accessor and a tween type
+ * during a manager update, waiting to be sent to the accessor in a single
+ * call.
+ *
+ * @see BatchTweenAccessor
+ * @author Aurelien Ribon | http://www.aurelienribon.com/
+ */
+class BatchWriteGroup {
+	final TweenManager manager;
+	final BatchTweenAccessor<?> accessor;
+	final int tweenType;
+	final int valuesCnt;
+
+	private Object[] targets = new Object[16];
+	private float[] values;
+	private int targetsCnt = 0;
+
+	public BatchWriteGroup(TweenManager manager, BatchTweenAccessor<?> accessor, int tweenType, int valuesCnt) {
+		this.manager = manager;
+		this.accessor = accessor;
+		this.tweenType = tweenType;
+		this.valuesCnt = valuesCnt;
+		this.values = new float[16 * valuesCnt];
+	}
+
+	/**
+	 * Returns true if the values of the given tween belong to this group.
+	 */
+	public boolean accepts(Tween tween) {
+		return tween.getAccessor() == accessor && tween.getType() == tweenType && tween.getCombinedAttributesCount() == valuesCnt;
+	}
+
+	/**
+	 * Records the values of a target. Returns true if it was the first
+	 * record since the last flush.
+	 */
+	public boolean add(Object target, float[] newValues) {
+		if (targetsCnt == targets.length) {
+			Object[] newTargets = new Object[targetsCnt * 2];
+			float[] newBuffer = new float[targetsCnt * 2 * valuesCnt];
+			System.arraycopy(targets, 0, newTargets, 0, targetsCnt);
+			System.arraycopy(values, 0, newBuffer, 0, targetsCnt * valuesCnt);
+			targets = newTargets;
+			values = newBuffer;
+		}
+
+		targets[targetsCnt] = target;
+		System.arraycopy(newValues, 0, values, targetsCnt * valuesCnt, valuesCnt);
+		targetsCnt += 1;
+		return targetsCnt == 1;
+	}
+
+	/**
+	 * Sends the recorded values to the accessor, and forgets them.
+	 */
+	public void flush() {
+		if (targetsCnt == 0) return;
+		int cnt = targetsCnt;
+		targetsCnt = 0;
+		accessor.setValues(targets, cnt, tweenType, values, valuesCnt);
+		for (int i=0; i<cnt; i++) targets[i] = null;
+	}
+}
@@ -0,0 +1,145 @@
+package aurelienribon.tweenengine;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+
+/**
+ * A TweenBatch writing its interpolated values into a float buffer, usually
+ * a direct one shared with a native renderer, instead of its output array.
+ * The buffer can then be handed to the GPU upload code as is, with no pass
+ * over the animated objects.
+ * <p/>
+ *
+ * The values of a slot are written at index offset + slot*stride in the
+ * buffer, so the batch can fill one attribute of an interleaved vertex
+ * buffer. The buffer is only written by the updates, once the delay of
+ * each slot is over, and {@link #getValues()} is not kept up to date.
+ * <p/>
+ *
+ * With the default kernel, the values are computed straight into the
+ * buffer, with no intermediate array. A custom
+ * {@link #setKernel(BatchKernel) kernel} only knows about arrays: it
+ * computes the values in the output array of the batch, and each run of
+ * updated slots is then copied to the buffer, in bulk when the stride
+ * allows it.
+ * <p/>
+ *
+ * <pre> {@code
+ * FloatBuffer positions = BufferTweenBatch.allocateBuffer(10000 * 2);
+ * TweenBatch batch = new BufferTweenBatch(10000, 2, positions, 0, 2);
+ * ...
+ * batch.update(delta);
+ * renderer.upload(positions);
+ * }</pre>
+ *
+ * @see TweenBatch
+ * @author Aurelien Ribon | http://www.aurelienribon.com/
+ */
+public class BufferTweenBatch extends TweenBatch {
+	private final FloatBuffer buffer;
+	private final int offset;
+	private final int stride;
+	private final FloatBuffer view;
+
+	/**
+	 * Creates a new batch writing the values of its slots one after another,
+	 * from the beginning of the buffer.
+	 */
+	public BufferTweenBatch(int capacity, int attrsCnt, FloatBuffer buffer) {
+		this(capacity, attrsCnt, buffer, 0, attrsCnt);
+	}
+
+	/**
+	 * Creates a new batch.
+	 *
+	 * @param buffer The buffer receiving the values.
+	 * @param offset The index of the first value of the first slot.
+	 * @param stride The number of floats between the first values of two
+	 * consecutive slots. Must be at least attrsCnt.
+	 */
+	public BufferTweenBatch(int capacity, int attrsCnt, FloatBuffer buffer, int offset, int stride) {
+		super(capacity, attrsCnt);
+		if (offset < 0) throw new RuntimeException("Offset can't be negative");
+		if (stride < attrsCnt) throw new RuntimeException("Stride can't be less than the attributes count");
+		if (capacity > 0 && offset + (capacity-1) * stride + attrsCnt > buffer.limit())
+			throw new RuntimeException("The buffer is too small for " + capacity + " slots");
+
+		this.buffer = buffer;
+		this.offset = offset;
+		this.stride = stride;
+		this.view = buffer.duplicate();
+	}
+
+	/**
+	 * Allocates a direct float buffer in the native byte order, as expected
+	 * by most native libraries.
+	 *
+	 * @param floatsCnt The capacity of the buffer, in floats.
+	 */
+	public static FloatBuffer allocateBuffer(int floatsCnt) {
+		return ByteBuffer.allocateDirect(floatsCnt * 4).order(ByteOrder.nativeOrder()).asFloatBuffer();
+	}
+
+	/**
+	 * Gets the buffer receiving the values.
+	 */
+	public FloatBuffer getBuffer() {
+		return buffer;
+	}
+
+	// -------------------------------------------------------------------------
+	// Overrides
+	// -------------------------------------------------------------------------
+
+	@Override
+	void pin(int slot, float[] srcValues) {
+		int attrsCnt = getAttributesCount();
+		int idx = offset + slot * stride;
+		for (int ii=slot*attrsCnt, n=ii+attrsCnt; ii<n; ii++) buffer.put(idx++, srcValues[ii]);
+	}
+
+	@Override
+	void interpolate(int fromSlot, int toSlot) {
+		if (getKernel() == ScalarBatchKernel.INSTANCE) {
+			interpolateToBuffer(fromSlot, toSlot);
+		} else {
+			super.interpolate(fromSlot, toSlot);
+			copyToBuffer(fromSlot, toSlot);
+		}
+	}
+
+	// -------------------------------------------------------------------------
+	// Helpers
+	// -------------------------------------------------------------------------
+
+	/**
+	 * Same computation as the default kernel, with the buffer as output.
+	 */
+	private void interpolateToBuffer(int fromSlot, int toSlot) {
+		int attrsCnt = getAttributesCount();
+
+		for (int i=fromSlot; i<toSlot; i++) {
+			float t = ratios[i];
+			int idx = offset + i * stride;
+			for (int ii=i*attrsCnt, n=ii+attrsCnt; ii<n; ii++) {
+				buffer.put(idx++, startValues[ii] + t * (targetValues[ii] - startValues[ii]));
+			}
+		}
+	}
+
+	private void copyToBuffer(int fromSlot, int toSlot) {
+		int attrsCnt = getAttributesCount();
+
+		if (stride == attrsCnt) {
+			view.position(offset + fromSlot * stride);
+			view.put(values, fromSlot * attrsCnt, (toSlot - fromSlot) * attrsCnt);
+			return;
+		}
+
+		for (int i=fromSlot; i<toSlot; i++) {
+			view.position(offset + i * stride);
+			view.put(values, i * attrsCnt, attrsCnt);
+		}
+	}
+}
@@ -0,0 +1,18 @@
+package aurelienribon.tweenengine;
+
+/**
+ * Reflection helpers that are not available with GWT. The GWT module
+ * replaces this class with the one of the "emu" super-source folder.
+ *
+ * @author Aurelien Ribon | http://www.aurelienribon.com/
+ */
+class ClassHierarchy {
+
+	/**
+	 * Gets the interfaces directly implemented by a class, or extended by an
+	 * interface.
+	 */
+	public static Class<?>[] getInterfaces(Class<?> someClass) {
+		return someClass.getInterfaces();
+	}
+}
@@ -0,0 +1,382 @@
+package aurelienribon.tweenengine;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A thread-safe pool, made of a small cache per thread, backed by a shared
+ * lock-free stack of batches. Threads only touch the shared stack when their
+ * cache is empty (to take a whole batch) or full (to give a whole batch), so
+ * they almost never contend. The objects freed by the update thread thus
+ * flow back, one batch at a time, to the threads creating the tweens.
+ * <p/>
+ *
+ * The usage counters are kept per thread too, and are only summed when the
+ * stats are read, so the stats are approximate while other threads use the
+ * pool, and the peak of outstanding objects is only sampled at that time.
+ * The counters of the threads which ended are folded into a single total,
+ * so short-lived threads don't make the list of caches grow forever.
+ * <p/>
+ *
+ * The size of the pool sums the shared stack and the caches of every
+ * thread, read without synchronization, so it is approximate as well.
+ * Clearing the pool empties the shared stack, and tells every thread to
+ * drop its cache the next time it uses the pool.
+ * <p/>
+ *
+ * The retention policy only applies to the shared stack: each thread may
+ * keep up to a cache of objects in addition to the retained ones.
+ *
+ * @see ConcurrentPools
+ * @author Aurelien Ribon | http://www.aurelienribon.com/
+ */
+class ConcurrentPool<T extends BaseTween<?>> extends Pool<T> {
+	private final Pool<T> source;
+	private final int cacheCapacity;
+	private final AtomicReference<Batch> batches = new AtomicReference<Batch>();
+	private final AtomicInteger sharedCnt = new AtomicInteger();
+	private final List<Cache> caches = new ArrayList<Cache>();
+	private final Counters deadCounters = new Counters(null);
+	private final Counters resetCounters = new Counters(null);
+	private int peakOutstandingCnt;
+	private volatile int lowWaterSize;
+	private int ticksCnt;
+	private volatile int clearsCnt;
+
+	private final ThreadLocal<Cache> localCache = new ThreadLocal<Cache>() {
+		@Override protected Cache initialValue() {
+			Cache cache = new Cache(cacheCapacity, clearsCnt);
+			synchronized (caches) {
+				pruneCaches();
+				caches.add(cache);
+			}
+			return cache;
+		}
+	};
+
+	/**
+	 * Creates a pool using the factory and the callback of the given pool.
+	 * The objects of the given pool are moved to the shared stack, and its
+	 * counters are carried over, so that the new pool can replace it.
+	 */
+	public ConcurrentPool(Pool<T> source, int cacheCapacity) {
+		super(1, source.callback);
+		this.source = source;
+		this.cacheCapacity = Math.max(cacheCapacity, 1);
+		adopt(source.getStats(), source.drain());
+		setRetention(source.maxRetainedCnt, source.trimInterval, source.trimRatio);
+	}
+
+	@Override
+	protected T create() {
+		return source.create();
+	}
+
+	@Override
+	public T get() {
+		Cache cache = getCache();
+		if (cache.size == 0) refill(cache);
+
+		T obj;
+		if (cache.size > 0) {
+			cache.size -= 1;
+			@SuppressWarnings("unchecked")
+			T pooled = (T) cache.objects[cache.size];
+			obj = pooled;
+			cache.objects[cache.size] = null;
+			obj.flags &= ~BaseTween.POOLED;
+			if (TweenDebug.isEnabled) TweenDebug.onGet(obj, true);
+		} else {
+			obj = create();
+			cache.counters.createsCnt += 1;
+			if (TweenDebug.isEnabled) TweenDebug.onGet(obj, false);
+		}
+
+		cache.counters.getsCnt += 1;
+		if (callback != null) callback.onUnPool(obj);
+		return obj;
+	}
+
+	@Override
+	public void free(T obj) {
+		if (obj == null) return;
+		if (TweenDebug.isEnabled) TweenDebug.onFree(obj);
+		if ((obj.flags & BaseTween.POOLED) != 0) return;
+
+		if (callback != null) callback.onPool(obj);
+		obj.flags |= BaseTween.POOLED;
+		obj.generation += 1;
+
+		Cache cache = getCache();
+		cache.counters.freesCnt += 1;
+		if (cache.size == cache.objects.length) spill(cache);
+		cache.objects[cache.size++] = obj;
+	}
+
+	/**
+	 * Empties the shared stack and the cache of the calling thread. The
+	 * other threads drop their cache the next time they use the pool.
+	 */
+	@Override
+	public void clear() {
+		clearsCnt += 1;
+		batches.set(null);
+		sharedCnt.set(0);
+		getCache();
+	}
+
+	/**
+	 * Gets the number of objects in the shared stack and in the caches of
+	 * every living thread. The caches are read while their threads may use them,
+	 * so the result is approximate.
+	 */
+	@Override
+	public int size() {
+		int size = sharedCnt.get();
+		int clearsCnt = this.clearsCnt;
+		synchronized (caches) {
+			pruneCaches();
+			for (int i=0, n=caches.size(); i<n; i++) {
+				Cache cache = caches.get(i);
+				if (cache.clearsCnt == clearsCnt) size += cache.size;
+			}
+		}
+		return size;
+	}
+
+	/**
+	 * Does nothing, the shared stack has no fixed capacity.
+	 */
+	@Override
+	public void ensureCapacity(int minCapacity) {
+	}
+
+	@Override
+	public synchronized void setRetention(int maxRetainedCnt, int trimInterval, float trimRatio) {
+		this.maxRetainedCnt = Math.max(maxRetainedCnt, 0);
+		this.trimInterval = Math.max(trimInterval, 0);
+		this.trimRatio = Math.min(Math.max(trimRatio, 0), 1);
+		this.ticksCnt = 0;
+		this.lowWaterSize = sharedCnt.get();
+		int cnt = sharedCnt.get() - this.maxRetainedCnt;
+		if (cnt > 0) release(cnt);
+	}
+
+	/**
+	 * Advances the trimming of the pool by one tick. The ticks are counted
+	 * without any synchronization, since it is called on every update of
+	 * every manager: concurrent ticks may be lost, which only delays the
+	 * trimming a bit. The trimming itself is synchronized.
+	 */
+	@Override
+	public void tick() {
+		if (trimInterval == 0 || ++ticksCnt < trimInterval) return;
+		trim();
+	}
+
+	@Override
+	public PoolStats getStats() {
+		synchronized (caches) {
+			pruneCaches();
+			Counters total = sumCounters();
+			int outstandingCnt = (int) (total.getsCnt - total.freesCnt);
+			if (outstandingCnt > peakOutstandingCnt) peakOutstandingCnt = outstandingCnt;
+
+			return new PoolStats(
+				total.getsCnt - resetCounters.getsCnt,
+				total.createsCnt - resetCounters.createsCnt,
+				total.freesCnt - resetCounters.freesCnt,
+				outstandingCnt, peakOutstandingCnt, size());
+		}
+	}
+
+	@Override
+	public void resetStats() {
+		synchronized (caches) {
+			Counters total = sumCounters();
+			resetCounters.getsCnt = total.getsCnt;
+			resetCounters.createsCnt = total.createsCnt;
+			resetCounters.freesCnt = total.freesCnt;
+			peakOutstandingCnt = (int) (total.getsCnt - total.freesCnt);
+		}
+	}
+
+	// -------------------------------------------------------------------------
+	// Helpers
+	// -------------------------------------------------------------------------
+
+	/**
+	 * Gets the cache of the calling thread, emptied if the pool was cleared
+	 * since it was last used.
+	 */
+	private Cache getCache() {
+		Cache cache = localCache.get();
+		int clearsCnt = this.clearsCnt;
+		if (cache.clearsCnt != clearsCnt) {
+			for (int i=0; i<cache.size; i++) cache.objects[i] = null;
+			cache.size = 0;
+			cache.clearsCnt = clearsCnt;
+		}
+		return cache;
+	}
+
+	/**
+	 * Takes over the objects and the counters of a pool being replaced. The
+	 * objects go to the shared stack, one cache-sized batch at a time. The
+	 * counters are folded like the ones of an ended thread, shifted so that
+	 * the gets, creates and frees start from the ones of the source pool
+	 * while its outstanding objects are still counted.
+	 */
+	private void adopt(PoolStats stats, Object[] objects) {
+		for (int i=0; i<objects.length; i+=cacheCapacity) {
+			int size = Math.min(cacheCapacity, objects.length - i);
+			Object[] batchObjects = new Object[cacheCapacity];
+			System.arraycopy(objects, i, batchObjects, 0, size);
+			Batch batch = new Batch(batchObjects, size);
+			batch.next = batches.get();
+			batches.set(batch);
+			sharedCnt.addAndGet(size);
+		}
+
+		long shift = stats.getOutstanding() - stats.getGets() + stats.getFrees();
+		deadCounters.getsCnt = stats.getGets() + shift;
+		deadCounters.createsCnt = stats.getCreates();
+		deadCounters.freesCnt = stats.getFrees();
+		resetCounters.getsCnt = shift;
+		peakOutstandingCnt = stats.getPeakOutstanding();
+	}
+
+	/**
+	 * Replaces the content of an empty cache with a batch of the shared stack,
+	 * if there is one.
+	 */
+	private void refill(Cache cache) {
+		Batch batch;
+		do {
+			batch = batches.get();
+			if (batch == null) return;
+		} while (!batches.compareAndSet(batch, batch.next));
+
+		int newSharedCnt = sharedCnt.addAndGet(-batch.size);
+		if (newSharedCnt < lowWaterSize) lowWaterSize = newSharedCnt;
+		cache.objects = batch.objects;
+		cache.size = batch.size;
+	}
+
+	/**
+	 * Moves the content of a full cache to the shared stack, or drops it if
+	 * the shared stack already retains enough objects.
+	 */
+	private void spill(Cache cache) {
+		if (sharedCnt.get() >= maxRetainedCnt) {
+			for (int i=0; i<cache.size; i++) cache.objects[i] = null;
+			cache.size = 0;
+			return;
+		}
+
+		Batch batch = new Batch(cache.objects, cache.size);
+		cache.objects = new Object[cacheCapacity];
+		cache.size = 0;
+
+		sharedCnt.addAndGet(batch.size);
+		Batch top;
+		do {
+			top = batches.get();
+			batch.next = top;
+		} while (!batches.compareAndSet(top, batch));
+	}
+
+	/**
+	 * Drops whole batches of the shared stack, until at least the given
+	 * number of objects were dropped or the stack is empty.
+	 */
+	private void release(int cnt) {
+		while (cnt > 0) {
+			Batch batch;
+			do {
+				batch = batches.get();
+				if (batch == null) return;
+			} while (!batches.compareAndSet(batch, batch.next));
+
+			sharedCnt.addAndGet(-batch.size);
+			cnt -= batch.size;
+		}
+	}
+
+	private synchronized void trim() {
+		if (ticksCnt < trimInterval) return;
+		ticksCnt = 0;
+
+		int cnt = (int) Math.ceil(lowWaterSize * trimRatio);
+		if (cnt > 0) release(cnt);
+		lowWaterSize = sharedCnt.get();
+	}
+
+	/**
+	 * Folds the counters of the threads which ended into the dead counters,
+	 * and forgets their caches. Once a thread is seen as ended, all its
+	 * writes are visible, so its counters are final. Must be called while
+	 * holding the caches lock.
+	 */
+	private void pruneCaches() {
+		for (int i=caches.size()-1; i>=0; i--) {
+			Cache cache = caches.get(i);
+			Thread owner = cache.counters.owner.get();
+			if (owner != null && owner.isAlive()) continue;
+
+			deadCounters.add(cache.counters);
+			Cache last = caches.remove(caches.size()-1);
+			if (last != cache) caches.set(i, last);
+		}
+	}
+
+	private Counters sumCounters() {
+		Counters total = new Counters(null);
+		total.add(deadCounters);
+		for (int i=0, n=caches.size(); i<n; i++) total.add(caches.get(i).counters);
+		return total;
+	}
+
+	private static class Cache {
+		public final Counters counters = new Counters(Thread.currentThread());
+		public Object[] objects;
+		public int size;
+		public int clearsCnt;
+
+		public Cache(int capacity, int clearsCnt) {
+			this.objects = new Object[capacity];
+			this.clearsCnt = clearsCnt;
+		}
+	}
+
+	private static class Counters {
+		public final WeakReference<Thread> owner;
+		public long getsCnt;
+		public long createsCnt;
+		public long freesCnt;
+
+		public Counters(Thread owner) {
+			this.owner = new WeakReference<Thread>(owner);
+		}
+
+		public void add(Counters c) {
+			getsCnt += c.getsCnt;
+			createsCnt += c.createsCnt;
+			freesCnt += c.freesCnt;
+		}
+	}
+
+	private static class Batch {
+		public final Object[] objects;
+		public final int size;
+		public Batch next;
+
+		public Batch(Object[] objects, int size) {
+			this.objects = objects;
+			this.size = size;
+		}
+	}
+}
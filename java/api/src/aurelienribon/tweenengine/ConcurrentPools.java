@@ -0,0 +1,46 @@
+package aurelienribon.tweenengine;
+
+/**
+ * Makes the Tween and Timeline pools thread-safe, so that tweens and
+ * timelines can be created and freed from any thread, for instance to be
+ * posted to a manager with {@link TweenManager#post(BaseTween)}.
+ * <p/>
+ *
+ * Each thread gets a small cache of pooled objects, backed by a shared
+ * lock-free stack, so creating tweens from several threads does not
+ * serialize them. Call {@link #install()} once, in application
+ * initialization code, before any tween is created from another thread. The
+ * objects already pooled and the usage counters are carried over to the
+ * thread-safe pools.
+ *
+ * @see TweenManager#post(BaseTween)
+ * @author Aurelien Ribon | http://www.aurelienribon.com/
+ */
+public class ConcurrentPools {
+
+	/**
+	 * Replaces the Tween and Timeline pools with thread-safe ones, using
+	 * per-thread caches of 64 objects.
+	 */
+	public static void install() {
+		install(64);
+	}
+
+	/**
+	 * Replaces the Tween and Timeline pools with thread-safe ones.
+	 *
+	 * @param cacheCapacity The number of objects each thread can keep for
+	 * itself before giving them back to the other threads.
+	 */
+	public static synchronized void install(int cacheCapacity) {
+		if (!Tween.pool.isReplaced()) Tween.pool.replaceWith(new ConcurrentPool<Tween>(Tween.pool, cacheCapacity));
+		if (!Timeline.pool.isReplaced()) Timeline.pool.replaceWith(new ConcurrentPool<Timeline>(Timeline.pool, cacheCapacity));
+	}
+
+	/**
+	 * Returns true if the Tween and Timeline pools are thread-safe.
+	 */
+	public static boolean isInstalled() {
+		return Tween.pool.isReplaced() && Timeline.pool.isReplaced();
+	}
+}
@@ -0,0 +1,243 @@
+package aurelienribon.tweenengine;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A TweenManager that splits the update of its objects between several
+ * threads. It is meant for very large sets of independent tweens, like
+ * server-side simulations, where a single core can't keep up with the
+ * updates.
+ * <p/>
+ *
+ * The objects are split into contiguous chunks, one per thread. The calling
+ * thread updates the first chunk itself, and waits for the other ones to be
+ * done before returning from {@link #update(float)}. The removal of finished
+ * objects, as well as every change to the managed objects, still happens on
+ * the calling thread, so the manager behaves exactly like a sequential one,
+ * except for the following points:
+ * <p/>
+ *
+ * - <b>callbacks are called concurrently</b>, from the worker threads. They
+ * must not use the manager, nor kill, pause or resume other managed
+ * objects. Enable the {@link #setDeferredCallbacks(boolean) deferred
+ * callbacks} mode to get them called on the calling thread once the
+ * update is done, in which case the order of the events of different
+ * chunks is not guaranteed,<br/>
+ * - the tweens of two different managed objects must not share a target,
+ * since the accessors are called concurrently too,<br/>
+ * - the update order is only guaranteed inside a chunk,<br/>
+ * - the tweens using a {@link BatchTweenAccessor} write their values one by
+ * one, from the worker threads.
+ * <p/>
+ *
+ * Small sets of objects are not worth the synchronization cost, so nothing
+ * is parallelized until each chunk gets at least
+ * {@link #setMinChunkSize(int) some objects}.
+ * <p/>
+ *
+ * The threads created by the manager itself stop after some idle time, and
+ * {@link #dispose()} stops them right away. An executor given to the manager
+ * is never shut down by it, it belongs to the caller.
+ *
+ * @see TweenManager
+ * @author Aurelien Ribon | http://www.aurelienribon.com/
+ */
+public class ParallelTweenManager extends TweenManager {
+	private static final long WORKER_KEEP_ALIVE_SECONDS = 10;
+
+	private final Executor executor;
+	private final boolean ownsExecutor;
+	private final Chunk[] chunks;
+	private final Object lock = new Object();
+	private int minChunkSize = 512;
+	private int pendingChunks;
+	private Throwable error;
+
+	/**
+	 * Creates a manager using one thread per available processor. The worker
+	 * threads are daemon threads, so they don't prevent the application
+	 * from exiting, and they stop after some idle time.
+	 */
+	public ParallelTweenManager() {
+		this(Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Creates a manager using the given number of threads, including the
+	 * calling thread. The worker threads are daemon threads, so they don't
+	 * prevent the application from exiting, and they stop after some idle
+	 * time.
+	 */
+	public ParallelTweenManager(int parallelism) {
+		this(createExecutor(parallelism), parallelism, true);
+	}
+
+	/**
+	 * Creates a manager splitting its updates into the given number of
+	 * chunks, the ones not updated by the calling thread being sent to the
+	 * given executor. The executor still belongs to the caller: it is not
+	 * shut down by {@link #dispose()}.
+	 */
+	public ParallelTweenManager(Executor executor, int parallelism) {
+		this(executor, parallelism, false);
+	}
+
+	private ParallelTweenManager(Executor executor, int parallelism, boolean ownsExecutor) {
+		if (parallelism < 1) throw new RuntimeException("Parallelism must be at least 1");
+		this.executor = executor;
+		this.ownsExecutor = ownsExecutor;
+		this.chunks = new Chunk[parallelism];
+		for (int i=0; i<parallelism; i++) chunks[i] = new Chunk();
+	}
+
+	/**
+	 * Changes the minimum number of objects updated by each thread. Defaults
+	 * to 512. If there are less objects than twice this number, the update is
+	 * done by the calling thread only.
+	 */
+	public void setMinChunkSize(int minChunkSize) {
+		this.minChunkSize = Math.max(minChunkSize, 1);
+	}
+
+	/**
+	 * Gets the number of chunks the objects can be split into.
+	 */
+	public int getParallelism() {
+		return chunks.length;
+	}
+
+	/**
+	 * Stops the worker threads created by the manager. The manager can still
+	 * be used afterwards, but every chunk is then updated by the calling
+	 * thread. Does nothing if the manager was given its executor.
+	 */
+	public void dispose() {
+		if (ownsExecutor) ((ExecutorService) executor).shutdown();
+	}
+
+	/**
+	 * Tells if the worker threads of the manager were stopped by
+	 * {@link #dispose()}. Always false if the manager was given its executor.
+	 */
+	public boolean isDisposed() {
+		return ownsExecutor && ((ExecutorService) executor).isShutdown();
+	}
+
+	// -------------------------------------------------------------------------
+	// Overrides
+	// -------------------------------------------------------------------------
+
+	@Override
+	void updateObjects(float delta) {
+		int n = getUpdatedCount();
+		int chunksCnt = Math.min(chunks.length, n / minChunkSize);
+
+		if (chunksCnt < 2) {
+			super.updateObjects(delta);
+			return;
+		}
+
+		synchronized (lock) {
+			pendingChunks = chunksCnt - 1;
+			error = null;
+		}
+
+		isBatchingWrites = false;
+
+		for (int i=1; i<chunksCnt; i++) {
+			chunks[i].setup(n * i / chunksCnt, n * (i+1) / chunksCnt, delta);
+			try {
+				executor.execute(chunks[i]);
+			} catch (RuntimeException ex) {
+				chunks[i].run();
+			}
+		}
+
+		Throwable localError = null;
+		try {
+			updateObjects(0, n / chunksCnt, delta);
+		} catch (Throwable t) {
+			localError = t;
+		}
+
+		boolean isInterrupted = false;
+		synchronized (lock) {
+			while (pendingChunks > 0) {
+				try {
+					lock.wait();
+				} catch (InterruptedException ex) {
+					isInterrupted = true;
+				}
+			}
+			if (localError == null) localError = error;
+			error = null;
+		}
+
+		if (isInterrupted) Thread.currentThread().interrupt();
+		if (localError instanceof RuntimeException) throw (RuntimeException) localError;
+		if (localError instanceof Error) throw (Error) localError;
+		if (localError != null) throw new RuntimeException(localError);
+	}
+
+	@Override
+	void deferCallback(TweenCallback callback, int type, BaseTween<?> source) {
+		synchronized (lock) {
+			super.deferCallback(callback, type, source);
+		}
+	}
+
+	// -------------------------------------------------------------------------
+	// Helpers
+	// -------------------------------------------------------------------------
+
+	private class Chunk implements Runnable {
+		private int fromIdx;
+		private int toIdx;
+		private float delta;
+
+		public void setup(int fromIdx, int toIdx, float delta) {
+			this.fromIdx = fromIdx;
+			this.toIdx = toIdx;
+			this.delta = delta;
+		}
+
+		@Override
+		public void run() {
+			Throwable chunkError = null;
+			try {
+				updateObjects(fromIdx, toIdx, delta);
+			} catch (Throwable t) {
+				chunkError = t;
+			}
+
+			synchronized (lock) {
+				if (chunkError != null && error == null) error = chunkError;
+				pendingChunks -= 1;
+				if (pendingChunks == 0) lock.notifyAll();
+			}
+		}
+	}
+
+	private static ExecutorService createExecutor(int parallelism) {
+		if (parallelism < 1) throw new RuntimeException("Parallelism must be at least 1");
+		int threadsCnt = Math.max(parallelism-1, 1);
+		ThreadPoolExecutor executor = new ThreadPoolExecutor(threadsCnt, threadsCnt,
+			WORKER_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+				private int cnt = 0;
+
+				@Override
+				public synchronized Thread newThread(Runnable r) {
+					Thread thread = new Thread(r, "tween-engine-worker-" + (cnt++));
+					thread.setDaemon(true);
+					return thread;
+				}
+			});
+		executor.allowCoreThreadTimeOut(true);
+		return executor;
+	}
+}
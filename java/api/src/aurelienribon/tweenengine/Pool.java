@@ -1,55 +1,240 @@
 package aurelienribon.tweenengine;
 
-import java.util.ArrayList;
-
 /**
  * A light pool of objects that can be resused to avoid allocation.
  * Based on Nathan Sweet pool implementation
+ * <p/>
+ *
+ * The objects are stored in a stack, so both get() and free() are constant
+ * time operations, and the most recently freed objects, which are the most
+ * likely to still be in the processor caches, are reused first. Each object
+ * carries a flag telling if it is in the pool, so freeing an object twice
+ * has no effect. The objects dropped by the pool, once cleared or released,
+ * keep that flag, so freeing them again has no effect either.
+ * <p/>
+ *
+ * By default, every freed object is retained. A retention policy can limit
+ * the number of retained objects, and release the objects that were not
+ * needed for a while: every few ticks, the smallest size reached by the pool
+ * since the previous trim tells how many objects were never used, and a
+ * fraction of them is released.
+ * <p/>
+ *
+ * A pool can be replaced by another implementation, like a thread-safe one,
+ * while keeping its identity: every call is then forwarded to the new pool,
+ * which takes over the pooled objects and the counters.
  */
-abstract class Pool<T> {
-	private final ArrayList<T> objects;
-	private final Callback<T> callback;
+abstract class Pool<T extends BaseTween<?>> {
+	private final int initCapacity;
+	private Object[] objects;
+	private int size = 0;
+	final Callback<T> callback;
+	private volatile Pool<T> delegate;
+
+	// Retention
+	int maxRetainedCnt = Integer.MAX_VALUE;
+	int trimInterval = 0;
+	float trimRatio = 0;
+	private int ticksCnt;
+	private int lowWaterSize;
+
+	// Stats
+	private long getsCnt;
+	private long createsCnt;
+	private long freesCnt;
+	private int outstandingCnt;
+	private int peakOutstandingCnt;
 
 	protected abstract T create();
 
 	public Pool(int initCapacity, Callback<T> callback) {
-		this.objects = new ArrayList<T>(initCapacity);
+		this.initCapacity = Math.max(initCapacity, 1);
+		this.objects = new Object[this.initCapacity];
 		this.callback = callback;
 	}
 
 	public T get() {
-		T obj = null;
-		try {
-			obj = objects.isEmpty() ? create() : objects.remove(0);
-		} catch (Exception e) {}
-		if (obj == null) obj = create();
+		Pool<T> d = delegate;
+		if (d != null) return d.get();
+
+		T obj;
+		if (size > 0) {
+			size -= 1;
+			@SuppressWarnings("unchecked")
+			T pooled = (T) objects[size];
+			obj = pooled;
+			objects[size] = null;
+			obj.flags &= ~BaseTween.POOLED;
+			if (size < lowWaterSize) lowWaterSize = size;
+			if (TweenDebug.isEnabled) TweenDebug.onGet(obj, true);
+		} else {
+			obj = create();
+			createsCnt += 1;
+			lowWaterSize = 0;
+			if (TweenDebug.isEnabled) TweenDebug.onGet(obj, false);
+		}
+
+		getsCnt += 1;
+		outstandingCnt += 1;
+		if (outstandingCnt > peakOutstandingCnt) peakOutstandingCnt = outstandingCnt;
+
 		if (callback != null) callback.onUnPool(obj);
 		return obj;
 	}
 
 	public void free(T obj) {
+		Pool<T> d = delegate;
+		if (d != null) {d.free(obj); return;}
+
 		if (obj == null) return;
+		if (TweenDebug.isEnabled) TweenDebug.onFree(obj);
+		if ((obj.flags & BaseTween.POOLED) != 0) return;
 
-		if (!objects.contains(obj)) {
-			if (callback != null) callback.onPool(obj);
-			objects.add(obj);
-		}
+		freesCnt += 1;
+		outstandingCnt -= 1;
+		if (callback != null) callback.onPool(obj);
+		obj.flags |= BaseTween.POOLED;
+		obj.generation += 1;
+		if (size >= maxRetainedCnt) return;
+
+		if (size == objects.length) ensureCapacity(size * 2);
+		objects[size++] = obj;
 	}
 
 	public void clear() {
-		objects.clear();
+		Pool<T> d = delegate;
+		if (d != null) {d.clear(); return;}
+
+		for (int i=0; i<size; i++) objects[i] = null;
+		size = 0;
+		lowWaterSize = 0;
 	}
 
 	public int size() {
-		return objects.size();
+		Pool<T> d = delegate;
+		return d != null ? d.size() : size;
 	}
 
 	public void ensureCapacity(int minCapacity) {
-		objects.ensureCapacity(minCapacity);
+		Pool<T> d = delegate;
+		if (d != null) {d.ensureCapacity(minCapacity); return;}
+
+		if (minCapacity <= objects.length) return;
+		Object[] newObjects = new Object[minCapacity];
+		System.arraycopy(objects, 0, newObjects, 0, size);
+		objects = newObjects;
+	}
+
+	public PoolStats getStats() {
+		Pool<T> d = delegate;
+		if (d != null) return d.getStats();
+
+		return new PoolStats(getsCnt, createsCnt, freesCnt, outstandingCnt, peakOutstandingCnt, size);
+	}
+
+	/**
+	 * Resets the counters. The outstanding objects are still counted, and
+	 * become the new peak.
+	 */
+	public void resetStats() {
+		Pool<T> d = delegate;
+		if (d != null) {d.resetStats(); return;}
+
+		getsCnt = createsCnt = freesCnt = 0;
+		peakOutstandingCnt = outstandingCnt;
+	}
+
+	/**
+	 * Changes the retention policy. The freed objects are dropped once the
+	 * pool retains maxRetainedCnt objects. Every trimInterval ticks, the given
+	 * ratio of the objects that were not needed during these ticks is
+	 * released. A trimInterval of 0 disables the trimming.
+	 */
+	public void setRetention(int maxRetainedCnt, int trimInterval, float trimRatio) {
+		this.maxRetainedCnt = Math.max(maxRetainedCnt, 0);
+		this.trimInterval = Math.max(trimInterval, 0);
+		this.trimRatio = Math.min(Math.max(trimRatio, 0), 1);
+
+		Pool<T> d = delegate;
+		if (d != null) {d.setRetention(maxRetainedCnt, trimInterval, trimRatio); return;}
+
+		this.ticksCnt = 0;
+		this.lowWaterSize = size;
+		if (size > this.maxRetainedCnt) release(size - this.maxRetainedCnt);
+	}
+
+	/**
+	 * Advances the trimming of the pool by one tick. Called by the managers
+	 * once per update.
+	 */
+	public void tick() {
+		Pool<T> d = delegate;
+		if (d != null) {d.tick(); return;}
+
+		if (trimInterval == 0 || ++ticksCnt < trimInterval) return;
+		ticksCnt = 0;
+
+		int cnt = (int) Math.ceil(lowWaterSize * trimRatio);
+		if (cnt > 0) release(cnt);
+		lowWaterSize = size;
+	}
+
+	// -------------------------------------------------------------------------
+	// Package API
+	// -------------------------------------------------------------------------
+
+	/**
+	 * Forwards every later call to the given pool, which must have taken
+	 * over the objects and the counters of this one (see {@link #drain()}).
+	 * Must be called before the pool is used from several threads.
+	 */
+	void replaceWith(Pool<T> pool) {
+		delegate = pool;
+	}
+
+	/**
+	 * Tells if the calls are forwarded to another pool.
+	 */
+	boolean isReplaced() {
+		return delegate != null;
+	}
+
+	/**
+	 * Removes every object from the pool, and returns them, the least
+	 * recently freed first. They keep their pooled flag.
+	 */
+	Object[] drain() {
+		Object[] drained = new Object[size];
+		System.arraycopy(objects, 0, drained, 0, size);
+		clear();
+		return drained;
+	}
+
+	// -------------------------------------------------------------------------
+	// Helpers
+	// -------------------------------------------------------------------------
+
+	/**
+	 * Drops the given number of objects, starting with the least recently
+	 * freed ones, and shrinks the stack if it became mostly empty. The
+	 * dropped objects keep their pooled flag, so freeing them again still
+	 * has no effect.
+	 */
+	private void release(int cnt) {
+		cnt = Math.min(cnt, size);
+		System.arraycopy(objects, cnt, objects, 0, size - cnt);
+		for (int i=size-cnt; i<size; i++) objects[i] = null;
+		size -= cnt;
+
+		if (size < objects.length / 4 && objects.length > initCapacity) {
+			Object[] newObjects = new Object[Math.max(size * 2, initCapacity)];
+			System.arraycopy(objects, 0, newObjects, 0, size);
+			objects = newObjects;
+		}
 	}
 
 	public interface Callback<T> {
 		public void onPool(T obj);
 		public void onUnPool(T obj);
 	}
-}
\ No newline at end of file
+}
@@ -0,0 +1,89 @@
+package aurelienribon.tweenengine;
+
+/**
+ * A snapshot of the usage of the Tween or Timeline pool, as returned by
+ * {@link Tween#getPoolStats()} and {@link Timeline#getPoolStats()}. It can
+ * be used to tune {@link Tween#ensurePoolCapacity(int)}: if the pool often
+ * needs to create new objects, the capacity should be raised to the peak
+ * number of outstanding objects.
+ *
+ * @author Aurelien Ribon | http://www.aurelienribon.com/
+ */
+public final class PoolStats {
+	private final long getsCnt;
+	private final long createsCnt;
+	private final long freesCnt;
+	private final int outstandingCnt;
+	private final int peakOutstandingCnt;
+	private final int size;
+
+	PoolStats(long getsCnt, long createsCnt, long freesCnt, int outstandingCnt, int peakOutstandingCnt, int size) {
+		this.getsCnt = getsCnt;
+		this.createsCnt = createsCnt;
+		this.freesCnt = freesCnt;
+		this.outstandingCnt = outstandingCnt;
+		this.peakOutstandingCnt = peakOutstandingCnt;
+		this.size = size;
+	}
+
+	/**
+	 * Gets the number of objects taken from the pool.
+	 */
+	public long getGets() {
+		return getsCnt;
+	}
+
+	/**
+	 * Gets the number of objects the pool had to create because it was
+	 * empty, i.e. the number of misses.
+	 */
+	public long getCreates() {
+		return createsCnt;
+	}
+
+	/**
+	 * Gets the number of objects given back to the pool.
+	 */
+	public long getFrees() {
+		return freesCnt;
+	}
+
+	/**
+	 * Gets the ratio of the objects taken from the pool that didn't need to
+	 * be created, between 0 and 1. Returns 1 if nothing was taken yet.
+	 */
+	public float getHitRate() {
+		return getsCnt > 0 ? (float) (getsCnt - createsCnt) / getsCnt : 1;
+	}
+
+	/**
+	 * Gets the number of objects taken from the pool and not given back yet.
+	 * If it keeps growing, some objects are never freed, which usually means
+	 * that they were created but never started.
+	 */
+	public int getOutstanding() {
+		return outstandingCnt;
+	}
+
+	/**
+	 * Gets the highest number of objects that were outstanding at the same
+	 * time.
+	 */
+	public int getPeakOutstanding() {
+		return peakOutstandingCnt;
+	}
+
+	/**
+	 * Gets the number of objects waiting in the pool.
+	 */
+	public int getSize() {
+		return size;
+	}
+
+	@Override
+	public String toString() {
+		return "gets=" + getsCnt + ", creates=" + createsCnt + ", frees=" + freesCnt
+			+ ", outstanding=" + outstandingCnt + ", peak=" + peakOutstandingCnt
+			+ ", size=" + size;
+	}
+}
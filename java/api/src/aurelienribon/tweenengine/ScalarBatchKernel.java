@@ -0,0 +1,41 @@
+package aurelienribon.tweenengine;
+
+/**
+ * The default {@link BatchKernel}, processing one slot at a time. It
+ * supports every equation.
+ *
+ * @see TweenBatch
+ * @author Aurelien Ribon | http://www.aurelienribon.com/
+ */
+public class ScalarBatchKernel implements BatchKernel {
+	public static final ScalarBatchKernel INSTANCE = new ScalarBatchKernel();
+
+	@Override
+	public boolean supports(TweenEquation equation) {
+		return true;
+	}
+
+	@Override
+	public void ease(TweenEquation equation, float[] ratios, int fromIdx, int toIdx) {
+		for (int i=fromIdx; i<toIdx; i++) {
+			ratios[i] = equation.compute(ratios[i]);
+		}
+	}
+
+	@Override
+	public void interpolate(float[] ratios, float[] startValues, float[] targetValues, float[] values, int attrsCnt, int fromSlot, int toSlot) {
+		if (attrsCnt == 1) {
+			for (int i=fromSlot; i<toSlot; i++) {
+				values[i] = startValues[i] + ratios[i] * (targetValues[i] - startValues[i]);
+			}
+			return;
+		}
+
+		for (int i=fromSlot; i<toSlot; i++) {
+			float t = ratios[i];
+			for (int ii=i*attrsCnt, n=ii+attrsCnt; ii<n; ii++) {
+				values[ii] = startValues[ii] + t * (targetValues[ii] - startValues[ii]);
+			}
+		}
+	}
+}
@@ -72,6 +72,47 @@ public final class Timeline extends BaseTween<Timeline> {
 		pool.ensureCapacity(minCapacity);
 	}
 
+	/**
+	 * Limits the number of objects retained by the Timeline pool. Once the
+	 * pool holds that many objects, the freed ones are left to the garbage
+	 * collector. Unlimited by default.
+	 */
+	public static void setPoolMaxRetained(int maxRetainedCnt) {
+		pool.setRetention(maxRetainedCnt, pool.trimInterval, pool.trimRatio);
+	}
+
+	/**
+	 * Makes the Timeline pool give back the memory it doesn't need anymore, for
+	 * instance after a burst of animations. Every <i>updates</i> manager
+	 * updates, the given ratio of the objects that stayed unused in the pool
+	 * during these updates is released. Every manager update counts, so
+	 * with several managers the interval should be raised accordingly.
+	 * Disabled by default.
+	 *
+	 * @param updates The number of manager updates between two trims, or 0
+	 * to disable the trimming.
+	 * @param ratio The ratio of the unused objects to release, between 0
+	 * and 1.
+	 */
+	public static void setPoolTrimming(int updates, float ratio) {
+		pool.setRetention(pool.maxRetainedCnt, updates, ratio);
+	}
+
+	/**
+	 * Gets a snapshot of the usage of the Timeline pool since the start of the
+	 * application, or since the last call to {@link #resetPoolStats()}.
+	 */
+	public static PoolStats getPoolStats() {
+		return pool.getStats();
+	}
+
+	/**
+	 * Resets the usage counters of the Timeline pool.
+	 */
+	public static void resetPoolStats() {
+		pool.resetStats();
+	}
+
 	// -------------------------------------------------------------------------
 	// Static -- factories
 	// -------------------------------------------------------------------------
@@ -101,12 +142,12 @@ public final class Timeline extends BaseTween<Timeline> {
 	// -------------------------------------------------------------------------
 
 	private enum Modes {SEQUENCE, PARALLEL}
+	private static final int BUILT = 0x1000;
 
-	private final List<BaseTween<?>> children = new ArrayList<BaseTween<?>>(10);
+	final List<BaseTween<?>> children = new ArrayList<BaseTween<?>>(10);
 	private Timeline current;
 	private Timeline parent;
 	private Modes mode;
-	private boolean isBuilt;
 
 	// -------------------------------------------------------------------------
 	// Setup
@@ -122,8 +163,11 @@ public final class Timeline extends BaseTween<Timeline> {
 
 		children.clear();
 		current = parent = null;
+	}
 
-		isBuilt = false;
+	@Override
+	boolean isReset() {
+		return super.isReset() && children.isEmpty() && current == null && parent == null;
 	}
 
 	private void setup(Modes mode) {
@@ -141,7 +185,8 @@ public final class Timeline extends BaseTween<Timeline> {
 	 * @return The current timeline, for chaining instructions.
 	 */
 	public Timeline push(Tween tween) {
-		if (isBuilt) throw new RuntimeException("You can't push anything to a timeline once it is started");
+		if ((flags & BUILT) != 0) throw new RuntimeException("You can't push anything to a timeline once it is started");
+		if (TweenDebug.isEnabled) TweenDebug.onPush(tween, this);
 		current.children.add(tween);
 		return this;
 	}
@@ -152,8 +197,9 @@ public final class Timeline extends BaseTween<Timeline> {
 	 * @return The current timeline, for chaining instructions.
 	 */
 	public Timeline push(Timeline timeline) {
-		if (isBuilt) throw new RuntimeException("You can't push anything to a timeline once it is started");
+		if ((flags & BUILT) != 0) throw new RuntimeException("You can't push anything to a timeline once it is started");
 		if (timeline.current != timeline) throw new RuntimeException("You forgot to call a few 'end()' statements in your pushed timeline");
+		if (TweenDebug.isEnabled) TweenDebug.onPush(timeline, this);
 		timeline.parent = current;
 		current.children.add(timeline);
 		return this;
@@ -167,8 +213,10 @@ public final class Timeline extends BaseTween<Timeline> {
 	 * @return The current timeline, for chaining instructions.
 	 */
 	public Timeline pushPause(float time) {
-		if (isBuilt) throw new RuntimeException("You can't push anything to a timeline once it is started");
-		current.children.add(Tween.mark().delay(time));
+		if ((flags & BUILT) != 0) throw new RuntimeException("You can't push anything to a timeline once it is started");
+		Tween pause = Tween.mark().delay(time);
+		if (TweenDebug.isEnabled) TweenDebug.onPush(pause, this);
+		current.children.add(pause);
 		return this;
 	}
 
@@ -179,8 +227,9 @@ public final class Timeline extends BaseTween<Timeline> {
 	 * @return The current timeline, for chaining instructions.
 	 */
 	public Timeline beginSequence() {
-		if (isBuilt) throw new RuntimeException("You can't push anything to a timeline once it is started");
+		if ((flags & BUILT) != 0) throw new RuntimeException("You can't push anything to a timeline once it is started");
 		Timeline tl = pool.get();
+		if (TweenDebug.isEnabled) TweenDebug.onPush(tl, this);
 		tl.parent = current;
 		tl.mode = Modes.SEQUENCE;
 		current.children.add(tl);
@@ -195,8 +244,9 @@ public final class Timeline extends BaseTween<Timeline> {
 	 * @return The current timeline, for chaining instructions.
 	 */
 	public Timeline beginParallel() {
-		if (isBuilt) throw new RuntimeException("You can't push anything to a timeline once it is started");
+		if ((flags & BUILT) != 0) throw new RuntimeException("You can't push anything to a timeline once it is started");
 		Timeline tl = pool.get();
+		if (TweenDebug.isEnabled) TweenDebug.onPush(tl, this);
 		tl.parent = current;
 		tl.mode = Modes.PARALLEL;
 		current.children.add(tl);
@@ -210,7 +260,7 @@ public final class Timeline extends BaseTween<Timeline> {
 	 * @return The current timeline, for chaining instructions.
 	 */
 	public Timeline end() {
-		if (isBuilt) throw new RuntimeException("You can't push anything to a timeline once it is started");
+		if ((flags & BUILT) != 0) throw new RuntimeException("You can't push anything to a timeline once it is started");
 		if (current == this) throw new RuntimeException("Nothing to end...");
 		current = current.parent;
 		return this;
@@ -221,7 +271,7 @@ public final class Timeline extends BaseTween<Timeline> {
 	 * list will be immutable.
 	 */
 	public List<BaseTween<?>> getChildren() {
-		if (isBuilt) return Collections.unmodifiableList(current.children);
+		if ((flags & BUILT) != 0) return Collections.unmodifiableList(current.children);
 		else return current.children;
 	}
 
@@ -231,7 +281,7 @@ public final class Timeline extends BaseTween<Timeline> {
 
 	@Override
 	public Timeline build() {
-		if (isBuilt) return this;
+		if ((flags & BUILT) != 0) return this;
 
 		duration = 0;
 
@@ -254,7 +304,7 @@ public final class Timeline extends BaseTween<Timeline> {
 			}
 		}
 
-		isBuilt = true;
+		flags |= BUILT;
 		return this;
 	}
 
@@ -88,22 +88,32 @@ public final class Tween extends BaseTween<Tween> {
 	public static final int INFINITY = -1;
 
 	private static int combinedAttrsLimit = 3;
-	private static int waypointsLimit = 0;
+	private static int pooledValuesLimit = getPooledValuesLimit(combinedAttrsLimit);
+	private static float[] buildBuffer = new float[combinedAttrsLimit];
+	private static final float[] EMPTY = new float[0];
 
 	/**
-	 * Changes the limit for combined attributes. Defaults to 3 to reduce
-	 * memory footprint.
+	 * Changes the limit for combined attributes. Defaults to 3. Each tween
+	 * only allocates the values it needs, so a high limit does not increase
+	 * the memory footprint of the tweens which don't use it. The pooled
+	 * tweens keep their values up to this limit, so that reusing a tween
+	 * with many attributes does not allocate.
 	 */
 	public static void setCombinedAttributesLimit(int limit) {
 		Tween.combinedAttrsLimit = limit;
+		Tween.pooledValuesLimit = getPooledValuesLimit(limit);
+		Tween.buildBuffer = new float[limit];
 	}
 
 	/**
-	 * Changes the limit of allowed waypoints for each tween. Defaults to 0 to
-	 * reduce memory footprint.
+	 * Does nothing, the number of waypoints of a tween is not limited
+	 * anymore.
+	 *
+	 * @deprecated Each tween allocates room for its waypoints when they are
+	 * added.
 	 */
+	@Deprecated
 	public static void setWaypointsLimit(int limit) {
-		Tween.waypointsLimit = limit;
 	}
 
 	/**
@@ -122,7 +132,7 @@ public final class Tween extends BaseTween<Tween> {
 		@Override public void onUnPool(Tween obj) {obj.reset();}
 	};
 
-	private static final Pool<Tween> pool = new Pool<Tween>(20, poolCallback) {
+	static final Pool<Tween> pool = new Pool<Tween>(20, poolCallback) {
 		@Override protected Tween create() {return new Tween();}
 	};
 
@@ -141,16 +151,61 @@ public final class Tween extends BaseTween<Tween> {
 		pool.ensureCapacity(minCapacity);
 	}
 
+	/**
+	 * Limits the number of objects retained by the Tween pool. Once the
+	 * pool holds that many objects, the freed ones are left to the garbage
+	 * collector. Unlimited by default.
+	 */
+	public static void setPoolMaxRetained(int maxRetainedCnt) {
+		pool.setRetention(maxRetainedCnt, pool.trimInterval, pool.trimRatio);
+	}
+
+	/**
+	 * Makes the Tween pool give back the memory it doesn't need anymore, for
+	 * instance after a burst of animations. Every <i>updates</i> manager
+	 * updates, the given ratio of the objects that stayed unused in the pool
+	 * during these updates is released. Every manager update counts, so
+	 * with several managers the interval should be raised accordingly.
+	 * Disabled by default.
+	 *
+	 * @param updates The number of manager updates between two trims, or 0
+	 * to disable the trimming.
+	 * @param ratio The ratio of the unused objects to release, between 0
+	 * and 1.
+	 */
+	public static void setPoolTrimming(int updates, float ratio) {
+		pool.setRetention(pool.maxRetainedCnt, updates, ratio);
+	}
+
+	/**
+	 * Gets a snapshot of the usage of the Tween pool since the start of the
+	 * application, or since the last call to {@link #resetPoolStats()}.
+	 */
+	public static PoolStats getPoolStats() {
+		return pool.getStats();
+	}
+
+	/**
+	 * Resets the usage counters of the Tween pool.
+	 */
+	public static void resetPoolStats() {
+		pool.resetStats();
+	}
+
 	// -------------------------------------------------------------------------
 	// Static -- tween accessors
 	// -------------------------------------------------------------------------
 
 	private static final Map<Class<?>, TweenAccessor<?>> registeredAccessors = new HashMap<Class<?>, TweenAccessor<?>>();
 
+	// Accessor resolutions, by concrete target class. The map is replaced
+	// instead of modified, so that lookups never need a lock.
+	private static volatile Map<Class<?>, Resolution> resolutions = new HashMap<Class<?>, Resolution>();
+
 	/**
 	 * Registers an accessor with the class of an object. This accessor will be
 	 * used by tweens applied to every objects implementing the registered
-	 * class, or inheriting from it.
+	 * class or interface, or inheriting from it.
 	 *
 	 * @param someClass An object class.
 	 * @param defaultAccessor The accessor that will be used to tween any
@@ -158,6 +213,7 @@ public final class Tween extends BaseTween<Tween> {
 	 */
 	public static void registerAccessor(Class<?> someClass, TweenAccessor<?> defaultAccessor) {
 		registeredAccessors.put(someClass, defaultAccessor);
+		resolutions = new HashMap<Class<?>, Resolution>();
 	}
 
 	/**
@@ -247,7 +303,7 @@ public final class Tween extends BaseTween<Tween> {
 		tween.setup(target, tweenType, duration);
 		tween.ease(Quad.INOUT);
 		tween.path(TweenPaths.catmullRom);
-		tween.isFrom = true;
+		tween.flags |= FROM;
 		return tween;
 	}
 
@@ -345,19 +401,27 @@ public final class Tween extends BaseTween<Tween> {
 	private TweenPath path;
 
 	// General
-	private boolean isFrom;
-	private boolean isRelative;
-	private int combinedAttrsCnt;
-	private int waypointsCnt;
-
-	// Values
-	private final float[] startValues = new float[combinedAttrsLimit];
-	private final float[] targetValues = new float[combinedAttrsLimit];
-	private final float[] waypoints = new float[waypointsLimit * combinedAttrsLimit];
+	private static final int FROM = 0x1000;
+	private static final int RELATIVE = 0x2000;
+	private short combinedAttrsCnt;
+	private short waypointsCnt;
+
+	// Values (grown to the next power of two of what the tween needs, and
+	// kept when the tween is pooled, unless they are larger than what the
+	// combined attributes limit allows, which happens when the limit is
+	// lowered, or than POOLED_WAYPOINTS_CNT waypoints)
+	private static final int POOLED_WAYPOINTS_CNT = 4;
+	private float[] startValues = EMPTY;
+	private float[] targetValues = EMPTY;
+	private float[] waypoints = EMPTY;
 
 	// Buffers
-	private float[] accessorBuffer = new float[combinedAttrsLimit];
-	private float[] pathBuffer = new float[(2+waypointsLimit)*combinedAttrsLimit];
+	private float[] accessorBuffer = EMPTY;
+	private float[] pathBuffer = EMPTY;
+
+	// Target index (see TweenManager)
+	Tween nextInTarget;
+	BaseTween<?> managedRoot;
 
 	// -------------------------------------------------------------------------
 	// Setup
@@ -378,28 +442,57 @@ public final class Tween extends BaseTween<Tween> {
 		equation = null;
 		path = null;
 
-		isFrom = isRelative = false;
 		combinedAttrsCnt = waypointsCnt = 0;
 
-		if (accessorBuffer.length != combinedAttrsLimit) {
-			accessorBuffer = new float[combinedAttrsLimit];
-		}
+		int pooledWaypointsLimit = pooledValuesLimit * POOLED_WAYPOINTS_CNT;
+		if (startValues.length > pooledValuesLimit) startValues = EMPTY;
+		if (targetValues.length > pooledValuesLimit) targetValues = EMPTY;
+		if (accessorBuffer.length > pooledValuesLimit) accessorBuffer = EMPTY;
+		if (waypoints.length > pooledWaypointsLimit) waypoints = EMPTY;
+		if (pathBuffer.length > pooledWaypointsLimit) pathBuffer = EMPTY;
 
-		if (pathBuffer.length != (2+waypointsLimit)*combinedAttrsLimit) {
-			pathBuffer = new float[(2+waypointsLimit)*combinedAttrsLimit];
-		}
+		nextInTarget = null;
+		managedRoot = null;
+	}
+
+	@Override
+	boolean isReset() {
+		return super.isReset()
+			&& target == null && type == -1 && equation == null && path == null
+			&& combinedAttrsCnt == 0 && waypointsCnt == 0;
 	}
 
 	private void setup(Object target, int tweenType, float duration) {
 		if (duration < 0) throw new RuntimeException("Duration can't be negative");
 
 		this.target = target;
-		this.targetClass = target != null ? findTargetClass() : null;
 		this.type = tweenType;
 		this.duration = duration;
+
+		if (target != null) {
+			Resolution resolution = resolve(target);
+			this.targetClass = resolution.targetClass;
+			this.accessor = resolution.accessor;
+		}
 	}
 
-	private Class<?> findTargetClass() {
+	private static Resolution resolve(Object target) {
+		Map<Class<?>, Resolution> currentResolutions = resolutions;
+		Resolution resolution = currentResolutions.get(target.getClass());
+
+		if (resolution == null) {
+			Class<?> targetClass = findTargetClass(target);
+			resolution = new Resolution(targetClass, (TweenAccessor<Object>) registeredAccessors.get(targetClass));
+
+			Map<Class<?>, Resolution> newResolutions = new HashMap<Class<?>, Resolution>(currentResolutions);
+			newResolutions.put(target.getClass(), resolution);
+			resolutions = newResolutions;
+		}
+
+		return resolution;
+	}
+
+	private static Class<?> findTargetClass(Object target) {
 		if (registeredAccessors.containsKey(target.getClass())) return target.getClass();
 		if (target instanceof TweenAccessor) return target.getClass();
 
@@ -407,7 +500,33 @@ public final class Tween extends BaseTween<Tween> {
 		while (parentClass != null && !registeredAccessors.containsKey(parentClass))
 			parentClass = parentClass.getSuperclass();
 
-		return parentClass;
+		if (parentClass != null) return parentClass;
+
+		for (Class<?> c = target.getClass(); c != null; c = c.getSuperclass()) {
+			Class<?> interfaceClass = findInterface(c);
+			if (interfaceClass != null) return interfaceClass;
+		}
+
+		return null;
+	}
+
+	private static Class<?> findInterface(Class<?> someClass) {
+		for (Class<?> interfaceClass : ClassHierarchy.getInterfaces(someClass)) {
+			if (registeredAccessors.containsKey(interfaceClass)) return interfaceClass;
+			Class<?> parentInterface = findInterface(interfaceClass);
+			if (parentInterface != null) return parentInterface;
+		}
+		return null;
+	}
+
+	private static class Resolution {
+		public final Class<?> targetClass;
+		public final TweenAccessor<Object> accessor;
+
+		public Resolution(Class<?> targetClass, TweenAccessor<Object> accessor) {
+			this.targetClass = targetClass;
+			this.accessor = accessor;
+		}
 	}
 
 	// -------------------------------------------------------------------------
@@ -472,6 +591,7 @@ public final class Tween extends BaseTween<Tween> {
 	 * @return The current tween, for chaining instructions.
 	 */
 	public Tween target(float targetValue) {
+		targetValues = grow(targetValues, 1);
 		targetValues[0] = targetValue;
 		return this;
 	}
@@ -491,6 +611,7 @@ public final class Tween extends BaseTween<Tween> {
 	 * @return The current tween, for chaining instructions.
 	 */
 	public Tween target(float targetValue1, float targetValue2) {
+		targetValues = grow(targetValues, 2);
 		targetValues[0] = targetValue1;
 		targetValues[1] = targetValue2;
 		return this;
@@ -512,6 +633,7 @@ public final class Tween extends BaseTween<Tween> {
 	 * @return The current tween, for chaining instructions.
 	 */
 	public Tween target(float targetValue1, float targetValue2, float targetValue3) {
+		targetValues = grow(targetValues, 3);
 		targetValues[0] = targetValue1;
 		targetValues[1] = targetValue2;
 		targetValues[2] = targetValue3;
@@ -533,6 +655,7 @@ public final class Tween extends BaseTween<Tween> {
 	 */
 	public Tween target(float... targetValues) {
 		if (targetValues.length > combinedAttrsLimit) throwCombinedAttrsLimitReached();
+		this.targetValues = grow(this.targetValues, targetValues.length);
 		System.arraycopy(targetValues, 0, this.targetValues, 0, targetValues.length);
 		return this;
 	}
@@ -550,7 +673,8 @@ public final class Tween extends BaseTween<Tween> {
 	 * @return The current tween, for chaining instructions.
 	 */
 	public Tween targetRelative(float targetValue) {
-		isRelative = true;
+		flags |= RELATIVE;
+		targetValues = grow(targetValues, 1);
 		targetValues[0] = isInitialized() ? targetValue + startValues[0] : targetValue;
 		return this;
 	}
@@ -569,7 +693,8 @@ public final class Tween extends BaseTween<Tween> {
 	 * @return The current tween, for chaining instructions.
 	 */
 	public Tween targetRelative(float targetValue1, float targetValue2) {
-		isRelative = true;
+		flags |= RELATIVE;
+		targetValues = grow(targetValues, 2);
 		targetValues[0] = isInitialized() ? targetValue1 + startValues[0] : targetValue1;
 		targetValues[1] = isInitialized() ? targetValue2 + startValues[1] : targetValue2;
 		return this;
@@ -590,7 +715,8 @@ public final class Tween extends BaseTween<Tween> {
 	 * @return The current tween, for chaining instructions.
 	 */
 	public Tween targetRelative(float targetValue1, float targetValue2, float targetValue3) {
-		isRelative = true;
+		flags |= RELATIVE;
+		targetValues = grow(targetValues, 3);
 		targetValues[0] = isInitialized() ? targetValue1 + startValues[0] : targetValue1;
 		targetValues[1] = isInitialized() ? targetValue2 + startValues[1] : targetValue2;
 		targetValues[2] = isInitialized() ? targetValue3 + startValues[2] : targetValue3;
@@ -611,11 +737,12 @@ public final class Tween extends BaseTween<Tween> {
 	 */
 	public Tween targetRelative(float... targetValues) {
 		if (targetValues.length > combinedAttrsLimit) throwCombinedAttrsLimitReached();
+		this.targetValues = grow(this.targetValues, targetValues.length);
 		for (int i=0; i<targetValues.length; i++) {
 			this.targetValues[i] = isInitialized() ? targetValues[i] + startValues[i] : targetValues[i];
 		}
 
-		isRelative = true;
+		flags |= RELATIVE;
 		return this;
 	}
 
@@ -630,7 +757,7 @@ public final class Tween extends BaseTween<Tween> {
 	 * @return The current tween, for chaining instructions.
 	 */
 	public Tween waypoint(float targetValue) {
-		if (waypointsCnt == waypointsLimit) throwWaypointsLimitReached();
+		waypoints = grow(waypoints, waypointsCnt+1);
 		waypoints[waypointsCnt] = targetValue;
 		waypointsCnt += 1;
 		return this;
@@ -651,7 +778,7 @@ public final class Tween extends BaseTween<Tween> {
 	 * @return The current tween, for chaining instructions.
 	 */
 	public Tween waypoint(float targetValue1, float targetValue2) {
-		if (waypointsCnt == waypointsLimit) throwWaypointsLimitReached();
+		waypoints = grow(waypoints, (waypointsCnt+1)*2);
 		waypoints[waypointsCnt*2] = targetValue1;
 		waypoints[waypointsCnt*2+1] = targetValue2;
 		waypointsCnt += 1;
@@ -674,7 +801,7 @@ public final class Tween extends BaseTween<Tween> {
 	 * @return The current tween, for chaining instructions.
 	 */
 	public Tween waypoint(float targetValue1, float targetValue2, float targetValue3) {
-		if (waypointsCnt == waypointsLimit) throwWaypointsLimitReached();
+		waypoints = grow(waypoints, (waypointsCnt+1)*3);
 		waypoints[waypointsCnt*3] = targetValue1;
 		waypoints[waypointsCnt*3+1] = targetValue2;
 		waypoints[waypointsCnt*3+2] = targetValue3;
@@ -696,7 +823,7 @@ public final class Tween extends BaseTween<Tween> {
 	 * @return The current tween, for chaining instructions.
 	 */
 	public Tween waypoint(float... targetValues) {
-		if (waypointsCnt == waypointsLimit) throwWaypointsLimitReached();
+		waypoints = grow(waypoints, (waypointsCnt+1)*targetValues.length);
 		System.arraycopy(targetValues, 0, waypoints, waypointsCnt*targetValues.length, targetValues.length);
 		waypointsCnt += 1;
 		return this;
@@ -743,9 +870,9 @@ public final class Tween extends BaseTween<Tween> {
 	}
 
 	/**
-	 * Gets the target values. The returned buffer is as long as the maximum
-	 * allowed combined values. Therefore, you're surely not interested in all
-	 * its content. Use {@link #getCombinedTweenCount()} to get the number of
+	 * Gets the target values. The returned buffer may be longer than the
+	 * number of combined values. Therefore, you're surely not interested in
+	 * all its content. Use {@link #getCombinedTweenCount()} to get the number of
 	 * interesting slots.
 	 */
 	public float[] getTargetValues() {
@@ -781,12 +908,19 @@ public final class Tween extends BaseTween<Tween> {
 	public Tween build() {
 		if (target == null) return this;
 
-		accessor = (TweenAccessor<Object>) registeredAccessors.get(targetClass);
 		if (accessor == null && target instanceof TweenAccessor) accessor = (TweenAccessor<Object>) target;
-		if (accessor != null) combinedAttrsCnt = accessor.getValues(target, type, accessorBuffer);
+		if (accessor != null) combinedAttrsCnt = (short) accessor.getValues(target, type, buildBuffer);
 		else throw new RuntimeException("No TweenAccessor was found for the target");
 
 		if (combinedAttrsCnt > combinedAttrsLimit) throwCombinedAttrsLimitReached();
+
+		startValues = grow(startValues, combinedAttrsCnt);
+		targetValues = grow(targetValues, combinedAttrsCnt);
+		accessorBuffer = grow(accessorBuffer, combinedAttrsCnt);
+		if (waypointsCnt > 0) {
+			waypoints = grow(waypoints, waypointsCnt*combinedAttrsCnt);
+			pathBuffer = grow(pathBuffer, waypointsCnt+2);
+		}
 		return this;
 	}
 
@@ -799,16 +933,18 @@ public final class Tween extends BaseTween<Tween> {
 	protected void initializeOverride() {
 		if (target == null) return;
 
+		// the values recorded for a batch accessor are not written yet
+		if (manager != null && manager.isBatchingWrites) manager.flushWrites();
 		accessor.getValues(target, type, startValues);
 
 		for (int i=0; i<combinedAttrsCnt; i++) {
-			targetValues[i] += isRelative ? startValues[i] : 0;
+			targetValues[i] += (flags & RELATIVE) != 0 ? startValues[i] : 0;
 
 			for (int ii=0; ii<waypointsCnt; ii++) {
-				waypoints[ii*combinedAttrsCnt+i] += isRelative ? startValues[i] : 0;
+				waypoints[ii*combinedAttrsCnt+i] += (flags & RELATIVE) != 0 ? startValues[i] : 0;
 			}
 
-			if (isFrom) {
+			if ((flags & FROM) != 0) {
 				float tmp = startValues[i];
 				startValues[i] = targetValues[i];
 				targetValues[i] = tmp;
@@ -823,12 +959,12 @@ public final class Tween extends BaseTween<Tween> {
 		// Case iteration end has been reached
 
 		if (!isIterationStep && step > lastStep) {
-			accessor.setValues(target, type, isReverse(lastStep) ? startValues : targetValues);
+			setValues(isReverse(lastStep) ? startValues : targetValues);
 			return;
 		}
 
 		if (!isIterationStep && step < lastStep) {
-			accessor.setValues(target, type, isReverse(lastStep) ? targetValues : startValues);
+			setValues(isReverse(lastStep) ? targetValues : startValues);
 			return;
 		}
 
@@ -841,12 +977,12 @@ public final class Tween extends BaseTween<Tween> {
 		// Case duration equals zero
 
 		if (duration < 0.00000000001f && delta > -0.00000000001f) {
-			accessor.setValues(target, type, isReverse(step) ? targetValues : startValues);
+			setValues(isReverse(step) ? targetValues : startValues);
 			return;
 		}
 
 		if (duration < 0.00000000001f && delta < 0.00000000001f) {
-			accessor.setValues(target, type, isReverse(step) ? startValues : targetValues);
+			setValues(isReverse(step) ? startValues : targetValues);
 			return;
 		}
 
@@ -872,7 +1008,7 @@ public final class Tween extends BaseTween<Tween> {
 			}
 		}
 
-		accessor.setValues(target, type, accessorBuffer);
+		setValues(accessorBuffer);
 	}
 
 	// -------------------------------------------------------------------------
@@ -882,13 +1018,13 @@ public final class Tween extends BaseTween<Tween> {
 	@Override
 	protected void forceStartValues() {
 		if (target == null) return;
-		accessor.setValues(target, type, startValues);
+		setValues(startValues);
 	}
 
 	@Override
 	protected void forceEndValues() {
 		if (target == null) return;
-		accessor.setValues(target, type, targetValues);
+		setValues(targetValues);
 	}
 
 	@Override
@@ -905,6 +1041,18 @@ public final class Tween extends BaseTween<Tween> {
 	// Helpers
 	// -------------------------------------------------------------------------
 
+	/**
+	 * Sends new values to the accessor, or to the manager if the accessor
+	 * receives the values of all its tweens at once.
+	 */
+	private void setValues(float[] values) {
+		if (manager != null && manager.isBatchingWrites && accessor instanceof BatchTweenAccessor) {
+			manager.batchWrite(this, values);
+		} else {
+			accessor.setValues(target, type, values);
+		}
+	}
+
 	private void throwCombinedAttrsLimitReached() {
 		String msg = "You cannot combine more than " + combinedAttrsLimit + " "
 			+ "attributes in a tween. You can raise this limit with "
@@ -913,11 +1061,27 @@ public final class Tween extends BaseTween<Tween> {
 		throw new RuntimeException(msg);
 	}
 
-	private void throwWaypointsLimitReached() {
-		String msg = "You cannot add more than " + waypointsLimit + " "
-			+ "waypoints to a tween. You can raise this limit with "
-			+ "Tween.setWaypointsLimit(), which should be called once in "
-			+ "application initialization code.";
-		throw new RuntimeException(msg);
+	/**
+	 * Gets the largest value array kept by a pooled tween: the arrays are
+	 * sized to powers of two, so this is the power of two holding the
+	 * combined attributes limit, and at least 4.
+	 */
+	private static int getPooledValuesLimit(int combinedAttrsLimit) {
+		int size = 4;
+		while (size < combinedAttrsLimit) size <<= 1;
+		return size;
+	}
+
+	/**
+	 * Returns the given array if it can hold the given number of values, or
+	 * a copy of it sized to the next power of two otherwise.
+	 */
+	private static float[] grow(float[] array, int capacity) {
+		if (array.length >= capacity) return array;
+		int size = 1;
+		while (size < capacity) size <<= 1;
+		float[] newArray = new float[size];
+		System.arraycopy(array, 0, newArray, 0, array.length);
+		return newArray;
 	}
 }
@@ -0,0 +1,626 @@
+package aurelienribon.tweenengine;
+
+import aurelienribon.tweenengine.equations.Quad;
+
+/**
+ * A TweenBatch animates a large number of homogeneous interpolations, like
+ * the particles of a particle system, without creating any Tween object.
+ * <p/>
+ *
+ * Every interpolation of the batch is stored in a slot, and every property
+ * of the slots (start and target values, timings, easing) is stored in
+ * parallel arrays of primitives. The update runs through these arrays in
+ * tight loops, and writes the interpolated values in a single output array,
+ * instead of calling a TweenAccessor for each interpolation. Read these
+ * values back with {@link #getValues()}. The easing equations and the
+ * interpolations are evaluated by a {@link BatchKernel}, which can be
+ * replaced by a vectorized one.
+ * <p/>
+ *
+ * Delays, repetitions and yoyo repetitions behave exactly like the ones of
+ * a {@link Tween}, down to the frame at which each iteration boundary is
+ * crossed, and a batch can be updated backwards as well. However,
+ * there is no callback, no waypoint, and the start values must be given
+ * explicitly, since there is no target object to read them from.
+ * <p/>
+ *
+ * <pre> {@code
+ * TweenBatch batch = new TweenBatch(10000, 2);
+ * int slot = batch.add(1.0f);
+ * batch.from(slot, 0, 0).target(slot, 100, 200).ease(slot, Quad.OUT);
+ * ...
+ * batch.update(delta);
+ * float[] xy = batch.getValues(); // x = xy[slot*2], y = xy[slot*2+1]
+ * }</pre>
+ *
+ * @see Tween
+ * @author Aurelien Ribon | http://www.aurelienribon.com/
+ */
+public class TweenBatch {
+	// Slot states
+	private static final byte FREE = 0;
+	private static final byte ALIVE = 1;
+	private static final byte INITIALIZED = 2;
+	private static final byte YOYO = 4;
+	private static final byte ITERATION_STEP = 8;
+
+	// Update modes, computed for each slot at each update
+	static final byte SKIP = 0; // values are left untouched
+	static final byte PIN = 1; // start values if ratio is 0, target values otherwise
+	static final byte EASE = 2; // ratio goes through the easing equation
+
+	private final int capacity;
+	private final int attrsCnt;
+
+	// Values
+	final float[] startValues;
+	final float[] targetValues;
+	final float[] values;
+
+	// Timings
+	private final float[] delays;
+	private final float[] durations;
+	private final float[] repeatDelays;
+	private final float[] times;
+	private final float[] currentTimes;
+	private final int[] steps;
+	private final int[] repeatCnts;
+
+	// Misc
+	private final byte[] states;
+	private final byte[] easings;
+	private final TweenEquation[] equations = new TweenEquation[256];
+	private int equationsCnt = 0;
+
+	// Update buffers
+	private BatchKernel kernel = ScalarBatchKernel.INSTANCE;
+	final float[] ratios;
+	final byte[] modes;
+	private final int[] slowSlots;
+
+	// Slots
+	private final int[] freeSlots;
+	private int freeSlotsCnt;
+	private int slotsCnt = 0;
+	private int size = 0;
+
+	/**
+	 * Creates a new batch.
+	 *
+	 * @param capacity The maximum number of simultaneous interpolations.
+	 * @param attrsCnt The number of values of each interpolation.
+	 */
+	public TweenBatch(int capacity, int attrsCnt) {
+		if (capacity < 0) throw new RuntimeException("Capacity can't be negative");
+		if (attrsCnt < 1) throw new RuntimeException("A batch needs at least one attribute");
+
+		this.capacity = capacity;
+		this.attrsCnt = attrsCnt;
+
+		startValues = new float[capacity * attrsCnt];
+		targetValues = new float[capacity * attrsCnt];
+		values = new float[capacity * attrsCnt];
+
+		delays = new float[capacity];
+		durations = new float[capacity];
+		repeatDelays = new float[capacity];
+		times = new float[capacity];
+		currentTimes = new float[capacity];
+		steps = new int[capacity];
+		repeatCnts = new int[capacity];
+
+		states = new byte[capacity];
+		easings = new byte[capacity];
+
+		ratios = new float[capacity];
+		modes = new byte[capacity];
+		slowSlots = new int[capacity];
+
+		freeSlots = new int[capacity];
+		freeSlotsCnt = 0;
+	}
+
+	// -------------------------------------------------------------------------
+	// Public API
+	// -------------------------------------------------------------------------
+
+	/**
+	 * Adds a new interpolation to the batch. Its start and target values are
+	 * zero, and its easing equation is Quad.INOUT, until you change them.
+	 *
+	 * @param duration The duration of the interpolation.
+	 * @return The slot of the interpolation, to be used with the other
+	 * methods of the batch, and as an index in the output values.
+	 */
+	public int add(float duration) {
+		if (duration < 0) throw new RuntimeException("Duration can't be negative");
+
+		int slot;
+		if (freeSlotsCnt > 0) slot = freeSlots[--freeSlotsCnt];
+		else if (slotsCnt < capacity) slot = slotsCnt++;
+		else throw new RuntimeException("The batch is full (capacity: " + capacity + ")");
+
+		states[slot] = ALIVE;
+		easings[slot] = findEquation(Quad.INOUT);
+		durations[slot] = duration;
+		delays[slot] = repeatDelays[slot] = times[slot] = currentTimes[slot] = 0;
+		repeatCnts[slot] = steps[slot] = 0;
+
+		for (int i=slot*attrsCnt, n=i+attrsCnt; i<n; i++) {
+			startValues[i] = targetValues[i] = values[i] = 0;
+		}
+
+		size += 1;
+		return slot;
+	}
+
+	/**
+	 * Removes an interpolation from the batch. Its slot may be reused by the
+	 * next added interpolation.
+	 */
+	public void remove(int slot) {
+		if (states[slot] == FREE) return;
+		states[slot] = FREE;
+		freeSlots[freeSlotsCnt++] = slot;
+		size -= 1;
+	}
+
+	/**
+	 * Removes every interpolation from the batch.
+	 */
+	public void clear() {
+		for (int i=0; i<slotsCnt; i++) states[i] = FREE;
+		freeSlotsCnt = 0;
+		slotsCnt = 0;
+		size = 0;
+	}
+
+	/**
+	 * Sets the start value of an interpolation. The output value is reset to
+	 * this start value.
+	 *
+	 * @return The batch, for chaining instructions.
+	 */
+	public TweenBatch from(int slot, float value) {
+		int offset = slot * attrsCnt;
+		startValues[offset] = values[offset] = value;
+		return this;
+	}
+
+	/**
+	 * Sets the start values of an interpolation. The output values are reset
+	 * to these start values.
+	 *
+	 * @return The batch, for chaining instructions.
+	 */
+	public TweenBatch from(int slot, float value1, float value2) {
+		if (attrsCnt < 2) throwAttrsCntExceeded();
+		int offset = slot * attrsCnt;
+		startValues[offset] = values[offset] = value1;
+		startValues[offset+1] = values[offset+1] = value2;
+		return this;
+	}
+
+	/**
+	 * Sets the start values of an interpolation. The output values are reset
+	 * to these start values.
+	 *
+	 * @return The batch, for chaining instructions.
+	 */
+	public TweenBatch from(int slot, float... values) {
+		if (values.length > attrsCnt) throwAttrsCntExceeded();
+		System.arraycopy(values, 0, startValues, slot * attrsCnt, values.length);
+		System.arraycopy(values, 0, this.values, slot * attrsCnt, values.length);
+		return this;
+	}
+
+	/**
+	 * Sets the target value of an interpolation.
+	 *
+	 * @return The batch, for chaining instructions.
+	 */
+	public TweenBatch target(int slot, float value) {
+		targetValues[slot * attrsCnt] = value;
+		return this;
+	}
+
+	/**
+	 * Sets the target values of an interpolation.
+	 *
+	 * @return The batch, for chaining instructions.
+	 */
+	public TweenBatch target(int slot, float value1, float value2) {
+		if (attrsCnt < 2) throwAttrsCntExceeded();
+		int offset = slot * attrsCnt;
+		targetValues[offset] = value1;
+		targetValues[offset+1] = value2;
+		return this;
+	}
+
+	/**
+	 * Sets the target values of an interpolation.
+	 *
+	 * @return The batch, for chaining instructions.
+	 */
+	public TweenBatch target(int slot, float... values) {
+		if (values.length > attrsCnt) throwAttrsCntExceeded();
+		System.arraycopy(values, 0, targetValues, slot * attrsCnt, values.length);
+		return this;
+	}
+
+	/**
+	 * Sets the easing equation of an interpolation. A batch can use up to 256
+	 * different equations.
+	 *
+	 * @return The batch, for chaining instructions.
+	 */
+	public TweenBatch ease(int slot, TweenEquation equation) {
+		easings[slot] = findEquation(equation);
+		return this;
+	}
+
+	/**
+	 * Adds a delay to an interpolation.
+	 *
+	 * @return The batch, for chaining instructions.
+	 */
+	public TweenBatch delay(int slot, float delay) {
+		delays[slot] += delay;
+		return this;
+	}
+
+	/**
+	 * Repeats an interpolation for a given number of times.
+	 *
+	 * @param count The number of repetitions. For infinite repetition,
+	 * use Tween.INFINITY, or a negative number.
+	 * @param delay A delay between each iteration.
+	 * @return The batch, for chaining instructions.
+	 */
+	public TweenBatch repeat(int slot, int count, float delay) {
+		repeatCnts[slot] = count;
+		repeatDelays[slot] = delay >= 0 ? delay : 0;
+		states[slot] &= ~YOYO;
+		return this;
+	}
+
+	/**
+	 * Repeats an interpolation for a given number of times. Every two
+	 * iterations, it will be played backwards.
+	 *
+	 * @param count The number of repetitions. For infinite repetition,
+	 * use Tween.INFINITY, or a negative number.
+	 * @param delay A delay between each iteration.
+	 * @return The batch, for chaining instructions.
+	 */
+	public TweenBatch repeatYoyo(int slot, int count, float delay) {
+		repeatCnts[slot] = count;
+		repeatDelays[slot] = delay >= 0 ? delay : 0;
+		states[slot] |= YOYO;
+		return this;
+	}
+
+	/**
+	 * Updates every interpolation of the batch with a delta time, and writes
+	 * their values in the output array.
+	 */
+	public void update(float delta) {
+		computeRatios(delta);
+		ease();
+		interpolate();
+	}
+
+	/**
+	 * Changes the kernel used to evaluate the easing equations and the
+	 * interpolations. Defaults to {@link ScalarBatchKernel}. The equations
+	 * not supported by the given kernel are still evaluated by the default
+	 * kernel.
+	 */
+	public void setKernel(BatchKernel kernel) {
+		this.kernel = kernel != null ? kernel : ScalarBatchKernel.INSTANCE;
+	}
+
+	// -------------------------------------------------------------------------
+	// Getters
+	// -------------------------------------------------------------------------
+
+	/**
+	 * Gets the output values. The values of an interpolation are located at
+	 * index slot*attrsCnt, and the returned array is updated in place by
+	 * each update call.
+	 */
+	public float[] getValues() {
+		return values;
+	}
+
+	/**
+	 * Gets the kernel used to evaluate the equations and the interpolations.
+	 */
+	public BatchKernel getKernel() {
+		return kernel;
+	}
+
+	/**
+	 * Gets the number of interpolations in the batch.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Gets the maximum number of interpolations in the batch.
+	 */
+	public int getCapacity() {
+		return capacity;
+	}
+
+	/**
+	 * Gets the number of values of each interpolation.
+	 */
+	public int getAttributesCount() {
+		return attrsCnt;
+	}
+
+	/**
+	 * Gets the local time of an interpolation, including its delay.
+	 */
+	public float getCurrentTime(int slot) {
+		return times[slot];
+	}
+
+	/**
+	 * Returns true if the given slot holds an interpolation.
+	 */
+	public boolean isAlive(int slot) {
+		return states[slot] != FREE;
+	}
+
+	/**
+	 * Returns true if the interpolation has reached its end (or its beginning,
+	 * if it is played backwards). Finished interpolations are not removed
+	 * automatically.
+	 */
+	public boolean isFinished(int slot) {
+		if ((states[slot] & INITIALIZED) == 0 || repeatCnts[slot] < 0) return false;
+		return steps[slot] > repeatCnts[slot]*2 || steps[slot] < 0;
+	}
+
+	// -------------------------------------------------------------------------
+	// Update engine
+	// -------------------------------------------------------------------------
+
+	/**
+	 * Advances the time of every slot and computes, for each one, the ratio
+	 * between its start and target values, and whether it needs to go
+	 * through the easing equation.
+	 */
+	private void computeRatios(float delta) {
+		int slowSlotsCnt = 0;
+
+		for (int i=0; i<slotsCnt; i++) {
+			byte state = states[i];
+			if (state == FREE) {
+				modes[i] = SKIP;
+				continue;
+			}
+
+			// Fast path: the slot stays inside its current iteration
+			float time = currentTimes[i] + delta;
+			float duration = durations[i];
+			int step = steps[i];
+			if ((state & (INITIALIZED | ITERATION_STEP)) == (INITIALIZED | ITERATION_STEP)
+				&& time >= 0 && time <= duration && duration >= 0.00000000001f
+				&& ((step >= 0 && step <= repeatCnts[i]*2) || repeatCnts[i] < 0)) {
+				times[i] += delta;
+				currentTimes[i] = time;
+				modes[i] = EASE;
+				ratios[i] = (isReverse(state, step) ? duration - time : time) / duration;
+				continue;
+			}
+
+			slowSlots[slowSlotsCnt++] = i;
+		}
+
+		// The other slots are rare, and are done apart to keep the loop tight
+		for (int i=0; i<slowSlotsCnt; i++) computeRatio(slowSlots[i], delta);
+	}
+
+	/**
+	 * Advances the time of a slot with the very same float operations as the
+	 * update of a {@link BaseTween}, so that every iteration boundary is
+	 * crossed on the same frame. Each place where a tween would write its
+	 * values sets the mode and the ratio of the slot instead, the last one
+	 * winning.
+	 */
+	private void computeRatio(int i, float delta) {
+		int state = states[i];
+		int step = steps[i];
+		int repeatCnt = repeatCnts[i];
+		float duration = durations[i];
+		float repeatDelay = repeatDelays[i];
+		float currentTime = currentTimes[i];
+		float deltaTime = delta;
+
+		times[i] += delta;
+		modes[i] = SKIP;
+
+		if ((state & INITIALIZED) == 0 && currentTime+deltaTime >= delays[i]) {
+			state |= INITIALIZED | ITERATION_STEP;
+			step = 0;
+			deltaTime -= delays[i]-currentTime;
+			currentTime = 0;
+		}
+
+		if ((state & INITIALIZED) != 0) {
+			// Relaunch
+
+			if ((state & ITERATION_STEP) == 0 && repeatCnt >= 0 && step < 0 && currentTime+deltaTime >= 0) {
+				state |= ITERATION_STEP;
+				step = 0;
+				float d = 0-currentTime;
+				deltaTime -= d;
+				currentTime = 0;
+				setIterationRatio(i, state, step, currentTime, d);
+
+			} else if ((state & ITERATION_STEP) == 0 && repeatCnt >= 0 && step > repeatCnt*2 && currentTime+deltaTime < 0) {
+				state |= ITERATION_STEP;
+				step = repeatCnt*2;
+				float d = 0-currentTime;
+				deltaTime -= d;
+				currentTime = duration;
+				setIterationRatio(i, state, step, currentTime, d);
+			}
+
+			// Steps
+
+			while ((step >= 0 && step <= repeatCnt*2) || repeatCnt < 0) {
+				if ((state & ITERATION_STEP) == 0 && currentTime+deltaTime <= 0) {
+					state |= ITERATION_STEP;
+					step -= 1;
+					float d = 0-currentTime;
+					deltaTime -= d;
+					currentTime = duration;
+					setIterationRatio(i, state, step, currentTime, d);
+
+				} else if ((state & ITERATION_STEP) == 0 && currentTime+deltaTime >= repeatDelay) {
+					state |= ITERATION_STEP;
+					step += 1;
+					float d = repeatDelay-currentTime;
+					deltaTime -= d;
+					currentTime = 0;
+					setIterationRatio(i, state, step, currentTime, d);
+
+				} else if ((state & ITERATION_STEP) != 0 && currentTime+deltaTime < 0) {
+					state &= ~ITERATION_STEP;
+					step -= 1;
+					float d = 0-currentTime;
+					deltaTime -= d;
+					currentTime = 0;
+					modes[i] = PIN;
+					ratios[i] = isReverse(state, step+1) ? 1 : 0;
+					if (step >= 0 || repeatCnt < 0) currentTime = repeatDelay;
+
+				} else if ((state & ITERATION_STEP) != 0 && currentTime+deltaTime > duration) {
+					state &= ~ITERATION_STEP;
+					step += 1;
+					float d = duration-currentTime;
+					deltaTime -= d;
+					modes[i] = PIN;
+					ratios[i] = isReverse(state, step-1) ? 0 : 1;
+					currentTime = 0;
+
+				} else if ((state & ITERATION_STEP) != 0) {
+					float d = deltaTime;
+					deltaTime -= d;
+					currentTime += d;
+					setIterationRatio(i, state, step, currentTime, d);
+					break;
+
+				} else {
+					float d = deltaTime;
+					deltaTime -= d;
+					currentTime += d;
+					break;
+				}
+			}
+		}
+
+		currentTime += deltaTime;
+
+		states[i] = (byte) state;
+		steps[i] = step;
+		currentTimes[i] = currentTime;
+	}
+
+	/**
+	 * Sets the ratio of a slot at the given time of an iteration.
+	 */
+	private void setIterationRatio(int i, int state, int step, float currentTime, float delta) {
+		float duration = durations[i];
+		boolean isReverse = isReverse(state, step);
+
+		if (duration < 0.00000000001f && delta > -0.00000000001f) {
+			modes[i] = PIN;
+			ratios[i] = isReverse ? 1 : 0;
+		} else if (duration < 0.00000000001f && delta < 0.00000000001f) {
+			modes[i] = PIN;
+			ratios[i] = isReverse ? 0 : 1;
+		} else {
+			modes[i] = EASE;
+			ratios[i] = (isReverse ? duration - currentTime : currentTime) / duration;
+		}
+	}
+
+	/**
+	 * Applies the easing equations to the ratios, one run of consecutive
+	 * slots sharing the same equation at a time.
+	 */
+	private void ease() {
+		int i = 0;
+		while (i < slotsCnt) {
+			if (modes[i] != EASE) {i++; continue;}
+
+			byte easing = easings[i];
+			int runStart = i;
+			while (i < slotsCnt && modes[i] == EASE && easings[i] == easing) i++;
+
+			TweenEquation equation = equations[easing & 0xFF];
+			BatchKernel k = kernel.supports(equation) ? kernel : ScalarBatchKernel.INSTANCE;
+			k.ease(equation, ratios, runStart, i);
+		}
+	}
+
+	/**
+	 * Interpolates the values of every slot from their ratio, one run of
+	 * consecutive updated slots at a time.
+	 */
+	private void interpolate() {
+		int i = 0;
+		while (i < slotsCnt) {
+			if (modes[i] == SKIP) {i++; continue;}
+			if (modes[i] == PIN) {pin(i, ratios[i] == 0 ? startValues : targetValues); i++; continue;}
+
+			int runStart = i;
+			while (i < slotsCnt && modes[i] == EASE) i++;
+			interpolate(runStart, i);
+		}
+	}
+
+	/**
+	 * Copies the start or target values of a slot to the output array, like
+	 * a tween does at the iteration boundaries, so that they are exact.
+	 */
+	void pin(int slot, float[] srcValues) {
+		System.arraycopy(srcValues, slot * attrsCnt, values, slot * attrsCnt, attrsCnt);
+	}
+
+	/**
+	 * Interpolates the values of the slots between fromSlot (inclusive) and
+	 * toSlot (exclusive), and writes them in the output array.
+	 */
+	void interpolate(int fromSlot, int toSlot) {
+		kernel.interpolate(ratios, startValues, targetValues, values, attrsCnt, fromSlot, toSlot);
+	}
+
+	// -------------------------------------------------------------------------
+	// Helpers
+	// -------------------------------------------------------------------------
+
+	private byte findEquation(TweenEquation equation) {
+		if (equation == null) throw new RuntimeException("Equation can't be null");
+		for (int i=0; i<equationsCnt; i++) {
+			if (equations[i] == equation) return (byte) i;
+		}
+		if (equationsCnt == equations.length) throw new RuntimeException("A batch can't use more than 256 equations");
+		equations[equationsCnt] = equation;
+		return (byte) equationsCnt++;
+	}
+
+	private boolean isReverse(int state, int step) {
+		return (state & YOYO) != 0 && (step & 3) == 2; // same as Math.abs(step%4) == 2
+	}
+
+	private void throwAttrsCntExceeded() {
+		throw new RuntimeException("This batch only handles " + attrsCnt + " attributes per interpolation");
+	}
+}
@@ -0,0 +1,186 @@
+package aurelienribon.tweenengine;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An opt-in diagnostic mode, detecting the misuses of the pooled tweens and
+ * timelines. Once enabled, every object taken from a pool records where it
+ * was taken and where it was freed, and the following problems are reported
+ * to the listener:
+ * <p/>
+ *
+ * - the objects that are used after being freed: started, added to a
+ * manager, pushed to a timeline or freed again, or modified while waiting in
+ * their pool, which is only detected when they are reused,<br/>
+ * - the objects that are pushed to two timelines, added to two managers, or
+ * both pushed to a timeline and added to a manager,<br/>
+ * - the objects that were never started, or that are finished but were
+ * never freed, each time {@link #reportLeaks()} is called.
+ * <p/>
+ *
+ * Recording the stack traces is slow, so this mode is meant for development
+ * builds. When it is disabled, which is the default, the engine only checks
+ * a static flag at each of these points. It should be enabled before any
+ * tween is created.
+ *
+ * @author Aurelien Ribon | http://www.aurelienribon.com/
+ */
+public final class TweenDebug {
+	static boolean isEnabled = false;
+	private static Listener listener;
+	private static final Map<BaseTween<?>, Throwable> allocationSites = new IdentityHashMap<BaseTween<?>, Throwable>();
+	private static final Map<BaseTween<?>, Throwable> freeSites = new IdentityHashMap<BaseTween<?>, Throwable>();
+	private static final Map<BaseTween<?>, Timeline> owners = new IdentityHashMap<BaseTween<?>, Timeline>();
+
+	/**
+	 * Receives the problems found by the diagnostic mode.
+	 */
+	public interface Listener {
+		/**
+		 * Called for each object that was never started, or that is finished
+		 * but was never freed, when {@link TweenDebug#reportLeaks()} is
+		 * called.
+		 */
+		public void onLeak(BaseTween<?> obj, Throwable allocationSite);
+
+		/**
+		 * Called when an object is used or modified after being freed. The
+		 * free site is null if the object was freed before the diagnostic
+		 * mode was enabled.
+		 */
+		public void onUseAfterFree(BaseTween<?> obj, Throwable freeSite);
+
+		/**
+		 * Called when an object is pushed to a timeline or added to a manager
+		 * while it already belongs to another one. The owners are either
+		 * timelines or managers.
+		 */
+		public void onSharedObject(BaseTween<?> obj, Object firstOwner, Object secondOwner, Throwable allocationSite);
+	}
+
+	// -------------------------------------------------------------------------
+	// Public API
+	// -------------------------------------------------------------------------
+
+	/**
+	 * Enables the diagnostic mode, reporting the problems to the given
+	 * listener.
+	 */
+	public static synchronized void enable(Listener listener) {
+		if (listener == null) throw new RuntimeException("A listener is required");
+		TweenDebug.listener = listener;
+		isEnabled = true;
+	}
+
+	/**
+	 * Disables the diagnostic mode and forgets every recorded site.
+	 */
+	public static synchronized void disable() {
+		isEnabled = false;
+		listener = null;
+		allocationSites.clear();
+		freeSites.clear();
+		owners.clear();
+	}
+
+	/**
+	 * Returns true if the diagnostic mode is enabled.
+	 */
+	public static boolean isEnabled() {
+		return isEnabled;
+	}
+
+	/**
+	 * Reports the objects taken from a pool since the diagnostic mode was
+	 * enabled, and that were never started, or that are finished but were
+	 * never freed. The objects nested in a timeline are only reported
+	 * through their timeline. Should be called when every animation is
+	 * expected to be either running or freed, for instance between two
+	 * levels.
+	 *
+	 * @return The number of reported objects.
+	 */
+	public static synchronized int reportLeaks() {
+		if (!isEnabled) return 0;
+
+		List<BaseTween<?>> leaks = new ArrayList<BaseTween<?>>();
+		for (BaseTween<?> obj : allocationSites.keySet()) {
+			if (owners.containsKey(obj)) continue;
+			if (!obj.isStarted() || (obj.isFinished() && obj.manager == null)) leaks.add(obj);
+		}
+
+		for (int i=0; i<leaks.size(); i++) {
+			BaseTween<?> obj = leaks.get(i);
+			listener.onLeak(obj, allocationSites.get(obj));
+		}
+		return leaks.size();
+	}
+
+	// -------------------------------------------------------------------------
+	// Package API
+	// -------------------------------------------------------------------------
+
+	/**
+	 * Called by the pools when an object is taken, before it is reset.
+	 */
+	static synchronized void onGet(BaseTween<?> obj, boolean wasPooled) {
+		if (!isEnabled) return;
+		Throwable freeSite = freeSites.remove(obj);
+		if (wasPooled && !obj.isReset()) listener.onUseAfterFree(obj, freeSite);
+		allocationSites.put(obj, new Throwable("Taken from the pool here"));
+	}
+
+	/**
+	 * Called by the pools when an object is freed, before anything else.
+	 */
+	static synchronized void onFree(BaseTween<?> obj) {
+		if (!isEnabled) return;
+		if ((obj.flags & BaseTween.POOLED) != 0) {
+			listener.onUseAfterFree(obj, freeSites.get(obj));
+			return;
+		}
+		allocationSites.remove(obj);
+		owners.remove(obj);
+		freeSites.put(obj, new Throwable("Freed here"));
+	}
+
+	/**
+	 * Called when an object is started.
+	 */
+	static synchronized void onStart(BaseTween<?> obj) {
+		if (!isEnabled) return;
+		if ((obj.flags & BaseTween.POOLED) != 0) listener.onUseAfterFree(obj, freeSites.get(obj));
+	}
+
+	/**
+	 * Called when an object is pushed to a timeline.
+	 */
+	static synchronized void onPush(BaseTween<?> obj, Timeline timeline) {
+		if (!isEnabled) return;
+		if ((obj.flags & BaseTween.POOLED) != 0) {
+			listener.onUseAfterFree(obj, freeSites.get(obj));
+			return;
+		}
+
+		Object owner = owners.containsKey(obj) ? owners.get(obj) : obj.manager;
+		if (owner != null) listener.onSharedObject(obj, owner, timeline, allocationSites.get(obj));
+		owners.put(obj, timeline);
+	}
+
+	/**
+	 * Called when an object is added to a manager, before it is attached.
+	 */
+	static synchronized void onAdd(BaseTween<?> obj, TweenManager manager) {
+		if (!isEnabled) return;
+		if ((obj.flags & BaseTween.POOLED) != 0) {
+			listener.onUseAfterFree(obj, freeSites.get(obj));
+			return;
+		}
+
+		Object owner = owners.containsKey(obj) ? owners.get(obj) : obj.manager;
+		if (owner != null && owner != manager) listener.onSharedObject(obj, owner, manager, allocationSites.get(obj));
+	}
+}
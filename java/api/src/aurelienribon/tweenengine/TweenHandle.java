@@ -0,0 +1,100 @@
+package aurelienribon.tweenengine;
+
+/**
+ * A safe reference to a tween or a timeline. Since these objects are pooled,
+ * a plain reference kept after the end of the animation may point to an
+ * object that was recycled for another animation, and killing it would stop
+ * this unrelated animation. A handle remembers the generation of the object
+ * when it was set, and ignores every operation once the object was sent back
+ * to its pool.
+ * <p/>
+ *
+ * Handles are mutable, so a single handle can be reused for each new
+ * animation of an entity, without any allocation:
+ *
+ * <pre> {@code
+ * handle.kill();
+ * handle.set(Tween.to(myObject, POSITION, 1.0f).target(50, 70).start(manager));
+ * }</pre>
+ *
+ * @see BaseTween#getGeneration()
+ * @author Aurelien Ribon | http://www.aurelienribon.com/
+ */
+public class TweenHandle<T extends BaseTween<?>> {
+	private T object;
+	private int generation;
+
+	/**
+	 * Creates an empty handle.
+	 */
+	public TweenHandle() {
+	}
+
+	/**
+	 * Creates a handle referencing the given tween or timeline.
+	 */
+	public TweenHandle(T object) {
+		set(object);
+	}
+
+	/**
+	 * References the given tween or timeline, replacing the previous one.
+	 *
+	 * @return The handle, for instruction chaining.
+	 */
+	public TweenHandle<T> set(T object) {
+		this.object = object;
+		this.generation = object != null ? object.generation : 0;
+		return this;
+	}
+
+	/**
+	 * Forgets the referenced object.
+	 */
+	public void clear() {
+		object = null;
+	}
+
+	/**
+	 * Returns true if the referenced object was not sent back to its pool
+	 * since it was set.
+	 */
+	public boolean isValid() {
+		return object != null && object.generation == generation;
+	}
+
+	/**
+	 * Gets the referenced object, or null if it was recycled.
+	 */
+	public T get() {
+		return isValid() ? object : null;
+	}
+
+	/**
+	 * Kills the referenced object, unless it was recycled.
+	 */
+	public void kill() {
+		if (isValid()) object.kill();
+	}
+
+	/**
+	 * Pauses the referenced object, unless it was recycled.
+	 */
+	public void pause() {
+		if (isValid()) object.pause();
+	}
+
+	/**
+	 * Resumes the referenced object, unless it was recycled.
+	 */
+	public void resume() {
+		if (isValid()) object.resume();
+	}
+
+	/**
+	 * Returns true if the referenced object is finished or was recycled.
+	 */
+	public boolean isFinished() {
+		return !isValid() || object.isFinished();
+	}
+}
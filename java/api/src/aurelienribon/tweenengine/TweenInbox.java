@@ -0,0 +1,77 @@
+package aurelienribon.tweenengine;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A lock-free queue of requests sent to a TweenManager from other threads.
+ * Any number of threads can post requests at the same time, without
+ * blocking, while the update thread is the only one draining the queue.
+ * <p/>
+ *
+ * Requests are pushed on top of a linked stack with a single compare-and-set
+ * operation. The update thread detaches the whole stack at once, and then
+ * reverses it, so that the requests are processed in the order they were
+ * posted.
+ *
+ * @see TweenManager
+ * @author Aurelien Ribon | http://www.aurelienribon.com/
+ */
+class TweenInbox {
+	static final int ADD = 1;
+	static final int KILL_TARGET = 2;
+	static final int KILL_TARGET_TYPE = 3;
+	static final int KILL = 4;
+	static final int PAUSE = 5;
+	static final int RESUME = 6;
+
+	private final AtomicReference<Request> head = new AtomicReference<Request>();
+
+	/**
+	 * Queues a request. The argument is the tween type of the
+	 * KILL_TARGET_TYPE requests, the generation of the object for the KILL,
+	 * PAUSE and RESUME requests, and is not used by the other ones.
+	 */
+	public void post(int action, Object object, int arg) {
+		Request request = new Request(action, object, arg);
+		Request top;
+		do {
+			top = head.get();
+			request.next = top;
+		} while (!head.compareAndSet(top, request));
+	}
+
+	public boolean isEmpty() {
+		return head.get() == null;
+	}
+
+	/**
+	 * Detaches every pending request, and returns them in the order they were
+	 * posted.
+	 */
+	public Request drain() {
+		Request request = head.getAndSet(null);
+		Request reversed = null;
+
+		while (request != null) {
+			Request next = request.next;
+			request.next = reversed;
+			reversed = request;
+			request = next;
+		}
+
+		return reversed;
+	}
+
+	static class Request {
+		final int action;
+		final Object object;
+		final int arg; // tween type or generation, depending on the action
+		Request next;
+
+		Request(int action, Object object, int arg) {
+			this.action = action;
+			this.object = object;
+			this.arg = arg;
+		}
+	}
+}
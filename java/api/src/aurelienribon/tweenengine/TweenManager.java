@@ -2,6 +2,8 @@ package aurelienribon.tweenengine;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
 import java.util.List;
 
 /**
@@ -12,6 +14,13 @@ import java.util.List;
  *
  * Just give it a bunch of tweens or timelines and call update() periodically,
  * you don't need to care for anything else! Relax and enjoy your animations.
+ * <p/>
+ *
+ * A manager is not thread-safe. Killing, pausing or resuming a managed
+ * object changes the lists of its manager, so it must be done from the
+ * thread updating the manager. Other threads use the post methods, like
+ * {@link #postKill(BaseTween)}, which queue their requests until the next
+ * update.
  *
  * @see Tween
  * @see Timeline
@@ -31,7 +40,8 @@ public class TweenManager {
 	 * will be played again, even if they were finished.
 	 */
 	public static void setAutoRemove(BaseTween<?> object, boolean value) {
-		object.isAutoRemoveEnabled = value;
+		if (value) object.flags |= BaseTween.AUTO_REMOVE;
+		else object.flags &= ~BaseTween.AUTO_REMOVE;
 	}
 
 	/**
@@ -41,7 +51,24 @@ public class TweenManager {
 	 * automatically, and you'll need to call .start() manually on your object.
 	 */
 	public static void setAutoStart(BaseTween<?> object, boolean value) {
-		object.isAutoStartEnabled = value;
+		if (value) object.flags |= BaseTween.AUTO_START;
+		else object.flags &= ~BaseTween.AUTO_START;
+	}
+
+	/**
+	 * Changes the update frequency of a particular tween or timeline in any
+	 * tween manager. By default, objects are updated on every update call.
+	 * With an interval of 2, the object is only updated every 2nd call, with
+	 * the sum of the delta times it skipped, and so on. This is useful for
+	 * cosmetic animations, which can run at a fraction of the CPU cost while
+	 * the important ones stay exact. Objects sharing an interval are spread
+	 * over the calls, so they are not all updated at the same time.
+	 *
+	 * @param frames The number of update calls between two updates of the
+	 * object, from 1 (every call) to 256.
+	 */
+	public static void setUpdateInterval(BaseTween<?> object, int frames) {
+		object.setUpdateInterval(frames);
 	}
 
 	// -------------------------------------------------------------------------
@@ -49,16 +76,76 @@ public class TweenManager {
 	// -------------------------------------------------------------------------
 
 	private final ArrayList<BaseTween<?>> objects = new ArrayList<BaseTween<?>>(20);
+	private final ArrayList<BaseTween<?>> awakened = new ArrayList<BaseTween<?>>(20);
+	private final ArrayList<BaseTween<?>> paused = new ArrayList<BaseTween<?>>(20);
+	private final IdentityHashMap<Object, TargetTweens> targets = new IdentityHashMap<Object, TargetTweens>();
+	private final ArrayList<TargetTweens> spareTargetTweens = new ArrayList<TargetTweens>();
+	private final TweenInbox inbox = new TweenInbox();
+	private BaseTween<?>[] delayed = new BaseTween<?>[20];
+	private double[] checkTimes = new double[20];
+	private int[] parkedSteps = new int[20];
+	private int delayedCnt = 0;
+	private final ArrayList<BaseTween<?>> rechecked = new ArrayList<BaseTween<?>>(20);
+	private float[] stepDeltas = new float[256];
+	private int historyStart = 0;
+	private int seq = 0;
+	private double time = 0;
+	private long stepCnt = 0;
+	private float fixedStep = 0;
+	private int maxSteps = 0;
+	private double accumulator = 0;
+	private boolean hasDeadline = false;
+	private long deadline = 0;
+	private int cursorSeq = 0;
+	private int deferredCnt = 0;
+	private TweenCallback[] eventCallbacks = new TweenCallback[64];
+	private BaseTween<?>[] eventSources = new BaseTween<?>[64];
+	private int[] eventTypes = new int[64];
+	private int eventCnt = 0;
+	private final ArrayList<BatchWriteGroup> writeGroups = new ArrayList<BatchWriteGroup>();
+	private BatchWriteGroup lastWriteGroup;
+	private final ArrayList<BatchWriteGroup> pendingWriteGroups = new ArrayList<BatchWriteGroup>();
 	private boolean isPaused = false;
 
+	// Package access
+	boolean isDeferringCallbacks = false;
+	boolean isBatchingWrites = false;
+
 	/**
 	 * Adds a tween or timeline to the manager and starts or restarts it.
+	 * <p/>
+	 *
+	 * The targets of the object (including the ones of the tweens nested in
+	 * a timeline) are indexed when it is added, so a timeline should not be
+	 * modified once it is managed.
+	 * <p/>
+	 *
+	 * An object that is still waiting for the end of its delay is not updated
+	 * every frame: it is parked until the end of the delay, and only then
+	 * joins the other objects, at the position it would have had if it was
+	 * never parked. It still starts on the very same update as if it had been
+	 * updated all along. Paused objects are set aside the same way until they
+	 * are resumed.
 	 *
 	 * @return The manager, for instruction chaining.
 	 */
 	public TweenManager add(BaseTween<?> object) {
-		if (!objects.contains(object)) objects.add(object);
-		if (object.isAutoStartEnabled) object.start();
+		if (TweenDebug.isEnabled) TweenDebug.onAdd(object, this);
+		if (object.manager != this) {
+			object.manager = this;
+			object.managedSeq = seq++;
+			object.managedSlot = (int) stepCnt;
+			index(object, object);
+			if ((object.flags & BaseTween.AUTO_START) != 0) object.start();
+			if (isDelayed(object)) park(object, stepDeltas[(int) stepCnt & (stepDeltas.length-1)]);
+			else objects.add(object);
+
+		} else if ((object.flags & BaseTween.AUTO_START) != 0) {
+			boolean wasParked = (object.flags & BaseTween.PARKED) != 0;
+			if (wasParked) unpark(object);
+			object.start();
+			if (wasParked) reinsert(object);
+		}
 		return this;
 	}
 
@@ -67,11 +154,7 @@ public class TweenManager {
 	 * to the given target object.
 	 */
 	public boolean containsTarget(Object target) {
-		for (int i=0, n=objects.size(); i<n; i++) {
-			BaseTween<?> obj = objects.get(i);
-			if (obj.containsTarget(target)) return true;
-		}
-		return false;
+		return targets.containsKey(target);
 	}
 
 	/**
@@ -79,9 +162,8 @@ public class TweenManager {
 	 * to the given target object and to the given tween type.
 	 */
 	public boolean containsTarget(Object target, int tweenType) {
-		for (int i=0, n=objects.size(); i<n; i++) {
-			BaseTween<?> obj = objects.get(i);
-			if (obj.containsTarget(target, tweenType)) return true;
+		for (Tween tween = getFirstTween(target); tween != null; tween = tween.nextInTarget) {
+			if (tween.getType() == tweenType) return true;
 		}
 		return false;
 	}
@@ -94,6 +176,14 @@ public class TweenManager {
 			BaseTween<?> obj = objects.get(i);
 			obj.kill();
 		}
+
+		for (int i=0, n=awakened.size(); i<n; i++) {
+			BaseTween<?> obj = awakened.get(i);
+			obj.kill();
+		}
+
+		while (delayedCnt > 0) delayed[0].kill();
+		while (!paused.isEmpty()) paused.get(0).kill();
 	}
 
 	/**
@@ -101,9 +191,8 @@ public class TweenManager {
 	 * timelines containing a tween associated to the given target.
 	 */
 	public void killTarget(Object target) {
-		for (int i=0, n=objects.size(); i<n; i++) {
-			BaseTween<?> obj = objects.get(i);
-			obj.killTarget(target);
+		for (Tween tween = getFirstTween(target); tween != null; tween = tween.nextInTarget) {
+			tween.managedRoot.kill();
 		}
 	}
 
@@ -113,12 +202,80 @@ public class TweenManager {
 	 * target and tween type.
 	 */
 	public void killTarget(Object target, int tweenType) {
-		for (int i=0, n=objects.size(); i<n; i++) {
-			BaseTween<?> obj = objects.get(i);
-			obj.killTarget(target, tweenType);
+		for (Tween tween = getFirstTween(target); tween != null; tween = tween.nextInTarget) {
+			if (tween.getType() == tweenType) tween.managedRoot.kill();
 		}
 	}
 
+	/**
+	 * Adds a tween or timeline to the manager from any thread. Unlike
+	 * {@link #add(BaseTween)}, this method does not need to be called from
+	 * the thread updating the manager: the object is queued without locking,
+	 * and is really added at the beginning of the next update call. The
+	 * posting thread must not touch the object anymore.
+	 * <p/>
+	 *
+	 * Note that the Tween and Timeline pools are not thread-safe by default,
+	 * so the posted objects should not be created concurrently with the
+	 * update thread, unless {@link ConcurrentPools#install()} was called.
+	 */
+	public void post(BaseTween<?> object) {
+		inbox.post(TweenInbox.ADD, object, -1);
+	}
+
+	/**
+	 * Kills every tweens associated to the given target, from any thread. The
+	 * request is queued without locking, and is processed at the beginning of
+	 * the next update call.
+	 *
+	 * @see #killTarget(Object)
+	 */
+	public void postKillTarget(Object target) {
+		inbox.post(TweenInbox.KILL_TARGET, target, -1);
+	}
+
+	/**
+	 * Kills every tweens associated to the given target and tween type, from
+	 * any thread. The request is queued without locking, and is processed at
+	 * the beginning of the next update call.
+	 *
+	 * @see #killTarget(Object, int)
+	 */
+	public void postKillTarget(Object target, int tweenType) {
+		inbox.post(TweenInbox.KILL_TARGET_TYPE, target, tweenType);
+	}
+
+	/**
+	 * Kills a managed tween or timeline, from any thread. Unlike
+	 * {@link BaseTween#kill()}, which must be called from the thread updating
+	 * the manager, the request is queued without locking, and is processed at
+	 * the beginning of the next update call. It is ignored if the object was
+	 * freed and reused in the meantime.
+	 */
+	public void postKill(BaseTween<?> object) {
+		inbox.post(TweenInbox.KILL, object, object.getGeneration());
+	}
+
+	/**
+	 * Pauses a managed tween or timeline, from any thread. The request is
+	 * queued like the ones of {@link #postKill(BaseTween)}.
+	 *
+	 * @see BaseTween#pause()
+	 */
+	public void postPause(BaseTween<?> object) {
+		inbox.post(TweenInbox.PAUSE, object, object.getGeneration());
+	}
+
+	/**
+	 * Resumes a managed tween or timeline, from any thread. The request is
+	 * queued like the ones of {@link #postKill(BaseTween)}.
+	 *
+	 * @see BaseTween#resume()
+	 */
+	public void postResume(BaseTween<?> object) {
+		inbox.post(TweenInbox.RESUME, object, object.getGeneration());
+	}
+
 	/**
 	 * Increases the minimum capacity of the manager. Defaults to 20.
 	 */
@@ -140,6 +297,47 @@ public class TweenManager {
 		isPaused = false;
 	}
 
+	/**
+	 * Enables the fixed time step mode. In this mode, the delta times given to
+	 * {@link #update(float)} are accumulated, and the objects are always
+	 * updated with the same step, as many times as the accumulated time
+	 * allows. Animations then give the same results whatever the frame rate,
+	 * which is required for replays or lockstep simulations.
+	 * <p/>
+	 *
+	 * The number of steps done in a single update call is capped, so that a
+	 * slow frame can't trigger even slower frames. Once this cap is reached,
+	 * the remaining whole steps are dropped. The time left in the accumulator
+	 * is available from {@link #getInterpolationAlpha()}.
+	 *
+	 * @param step The fixed delta time, or 0 to disable the mode.
+	 * @param maxStepsPerUpdate The maximum number of steps done during a
+	 * single update call.
+	 */
+	public void setFixedTimeStep(float step, int maxStepsPerUpdate) {
+		if (step < 0) throw new RuntimeException("Time step can't be negative");
+		this.fixedStep = step;
+		this.maxSteps = Math.max(maxStepsPerUpdate, 1);
+		this.accumulator = 0;
+	}
+
+	/**
+	 * Gets the fixed time step, or 0 if the fixed time step mode is disabled.
+	 */
+	public float getFixedTimeStep() {
+		return fixedStep;
+	}
+
+	/**
+	 * Gets the fraction of a step that was not consumed by the last update
+	 * call, when the fixed time step mode is enabled. Renderers can use it to
+	 * interpolate between the two last steps. The value is between 0 and 1,
+	 * or between -1 and 0 if the manager is played backwards.
+	 */
+	public float getInterpolationAlpha() {
+		return fixedStep > 0 ? (float) (accumulator / fixedStep) : 0;
+	}
+
 	/**
 	 * Updates every tweens with a delta time ang handles the tween life-cycles
 	 * automatically. If a tween is finished, it will be removed from the
@@ -151,23 +349,38 @@ public class TweenManager {
 	 * Slow motion, fast motion and backward play can be easily achieved by
 	 * tweaking this delta time. Multiply it by -1 to play the animation
 	 * backward, or by 0.5 to play it twice slower than its normal speed.
+	 * <p/>
+	 *
+	 * If the fixed time step mode is enabled, the objects are updated zero,
+	 * one or several times, with the fixed step.
+	 *
+	 * @see #setFixedTimeStep(float, int)
 	 */
 	public void update(float delta) {
-		for (int i=objects.size()-1; i>=0; i--) {
-			BaseTween<?> obj = objects.get(i);
-			if (obj.isFinished() && obj.isAutoRemoveEnabled) {
-				objects.remove(i);
-				obj.free();
-			}
+		Tween.pool.tick();
+		Timeline.pool.tick();
+
+		if (fixedStep <= 0 || isPaused) {
+			step(delta);
+			return;
 		}
 
-		if (!isPaused) {
-			if (delta >= 0) {
-				for (int i=0, n=objects.size(); i<n; i++) objects.get(i).update(delta);
-			} else {
-				for (int i=objects.size()-1; i>=0; i--) objects.get(i).update(delta);
-			}
+		accumulator += delta;
+		int steps = 0;
+
+		while (accumulator >= fixedStep && steps < maxSteps) {
+			step(fixedStep);
+			accumulator -= fixedStep;
+			steps += 1;
+		}
+
+		while (accumulator <= -fixedStep && steps < maxSteps) {
+			step(-fixedStep);
+			accumulator += fixedStep;
+			steps += 1;
 		}
+
+		accumulator %= fixedStep;
 	}
 
 	/**
@@ -178,7 +391,7 @@ public class TweenManager {
 	 * To get the count of running tweens, see {@link #getRunningTweensCount()}.
 	 */
 	public int size() {
-		return objects.size();
+		return objects.size() + awakened.size() + paused.size() + delayedCnt;
 	}
 
 	/**
@@ -188,7 +401,7 @@ public class TweenManager {
 	 * <b>Provided for debug purpose only.</b>
 	 */
 	public int getRunningTweensCount() {
-		return getTweensCount(objects);
+		return getTweensCount(getObjects());
 	}
 
 	/**
@@ -198,7 +411,7 @@ public class TweenManager {
 	 * <b>Provided for debug purpose only.</b>
 	 */
 	public int getRunningTimelinesCount() {
-		return getTimelinesCount(objects);
+		return getTimelinesCount(getObjects());
 	}
 
 	/**
@@ -207,13 +420,668 @@ public class TweenManager {
 	 * <b>Provided for debug purpose only.</b>
 	 */
 	public List<BaseTween<?>> getObjects() {
-		return Collections.unmodifiableList(objects);
+		if (awakened.isEmpty() && paused.isEmpty() && delayedCnt == 0) return Collections.unmodifiableList(objects);
+
+		List<BaseTween<?>> objs = new ArrayList<BaseTween<?>>(size());
+		objs.addAll(objects);
+		objs.addAll(awakened);
+		objs.addAll(paused);
+		for (int i=0; i<delayedCnt; i++) objs.add(delayed[i]);
+		Collections.sort(objs, seqComparator);
+		return Collections.unmodifiableList(objs);
+	}
+
+	/**
+	 * Updates the objects like {@link #update(float)}, but stops updating them
+	 * once the given deadline is reached, so that a burst of objects can't
+	 * exceed the time allowed to the animations during a frame.
+	 * <p/>
+	 *
+	 * The objects are updated in a round-robin fashion: the next call starts
+	 * with the first object that was not updated. The skipped objects don't
+	 * lose any time, they receive the accumulated delta times the next time
+	 * they are updated. The number of skipped objects is given by
+	 * {@link #getDeferredCount()}.
+	 * <p/>
+	 *
+	 * The deadline is only checked every few objects, so it may be slightly
+	 * exceeded. Budgeted updates are always sequential, and objects are
+	 * updated in the same order whatever the sign of the delta.
+	 *
+	 * @param delta A delta time between now and the last call.
+	 * @param deadline The time, as given by {@link System#nanoTime()}, at
+	 * which the updates must stop.
+	 */
+	public void update(float delta, long deadline) {
+		this.hasDeadline = true;
+		this.deadline = deadline;
+		try {
+			update(delta);
+		} finally {
+			this.hasDeadline = false;
+		}
+	}
+
+	/**
+	 * Gets the number of objects that were not updated during the last update
+	 * call because its deadline was reached. Always 0 for the updates without
+	 * deadline.
+	 *
+	 * @see #update(float, long)
+	 */
+	public int getDeferredCount() {
+		return deferredCnt;
+	}
+
+	/**
+	 * Enables or disables the deferred callbacks mode. By default, callbacks
+	 * are called as soon as their event occurs, deep inside the update of
+	 * their tween or timeline. In deferred mode, the events are recorded in a
+	 * preallocated buffer during the update, and the callbacks are called all
+	 * at once when the update is done (after each step, in fixed time step
+	 * mode).
+	 * <p/>
+	 *
+	 * This keeps the update loop tight, and makes it safe for callbacks to
+	 * add, kill, pause or resume objects, since the manager is not iterating
+	 * over them anymore. With a {@link ParallelTweenManager}, it also makes
+	 * every callback run on the calling thread. The events of a single object
+	 * are dispatched in the order they occurred.
+	 */
+	public void setDeferredCallbacks(boolean value) {
+		if (!value) dispatchCallbacks();
+		isDeferringCallbacks = value;
+	}
+
+	// -------------------------------------------------------------------------
+	// Package API
+	// -------------------------------------------------------------------------
+
+	/**
+	 * Records an event, to be dispatched at the end of the current step.
+	 */
+	void deferCallback(TweenCallback callback, int type, BaseTween<?> source) {
+		if (eventCnt == eventTypes.length) {
+			int capacity = eventTypes.length * 2;
+			TweenCallback[] callbacks = new TweenCallback[capacity];
+			BaseTween<?>[] sources = new BaseTween<?>[capacity];
+			int[] types = new int[capacity];
+			System.arraycopy(eventCallbacks, 0, callbacks, 0, eventCnt);
+			System.arraycopy(eventSources, 0, sources, 0, eventCnt);
+			System.arraycopy(eventTypes, 0, types, 0, eventCnt);
+			eventCallbacks = callbacks;
+			eventSources = sources;
+			eventTypes = types;
+		}
+
+		eventCallbacks[eventCnt] = callback;
+		eventSources[eventCnt] = source;
+		eventTypes[eventCnt] = type;
+		eventCnt += 1;
+	}
+
+	/**
+	 * Records the new values of a tween using a {@link BatchTweenAccessor}.
+	 * They are written along with the ones of the other tweens sharing its
+	 * accessor and type once every object is updated, or earlier if a tween
+	 * needs to read the values of its target.
+	 */
+	void batchWrite(Tween tween, float[] values) {
+		BatchWriteGroup group = lastWriteGroup;
+		if (group == null || !group.accepts(tween)) {
+			group = findWriteGroup(tween);
+			lastWriteGroup = group;
+		}
+
+		if (group.add(tween.getTarget(), values)) pendingWriteGroups.add(group);
+	}
+
+	/**
+	 * Sends the values recorded so far during the update to the batch
+	 * accessors, one call per group. Also called before a tween reads the
+	 * values of its target, so that it never starts from stale values.
+	 */
+	void flushWrites() {
+		if (pendingWriteGroups.isEmpty()) return;
+		for (int i=0; i<pendingWriteGroups.size(); i++) pendingWriteGroups.get(i).flush();
+		pendingWriteGroups.clear();
+	}
+
+	/**
+	 * Called when a managed object is killed, paused or resumed. If the object
+	 * was set aside (waiting for the end of its delay, or paused), it goes
+	 * back to the updated objects, where it will be removed or set aside
+	 * again if needed.
+	 */
+	void wake(BaseTween<?> object) {
+		if ((object.flags & BaseTween.PARKED) != 0) {
+			unpark(object);
+			catchUp(object, (int) stepCnt);
+		} else if ((object.flags & BaseTween.SET_ASIDE) != 0 && (!object.isPaused() || object.isFinished())) {
+			unpause(object);
+		} else {
+			return;
+		}
+
+		reinsert(object);
+	}
+
+	/**
+	 * Updates every object of the update list. Overridden by the managers
+	 * that split this work between several threads.
+	 */
+	void updateObjects(float delta) {
+		updateObjects(0, objects.size(), delta);
+	}
+
+	/**
+	 * Updates the objects of the update list located between the two given
+	 * indices, in the direction given by the sign of the delta.
+	 */
+	void updateObjects(int fromIdx, int toIdx, float delta) {
+		if (delta >= 0) {
+			for (int i=fromIdx; i<toIdx; i++) updateObject(objects.get(i), delta);
+		} else {
+			for (int i=toIdx-1; i>=fromIdx; i--) updateObject(objects.get(i), delta);
+		}
+	}
+
+	/**
+	 * Gets the number of objects in the update list, which excludes the parked
+	 * and paused objects.
+	 */
+	int getUpdatedCount() {
+		return objects.size();
 	}
 
 	// -------------------------------------------------------------------------
 	// Helpers
 	// -------------------------------------------------------------------------
 
+	/**
+	 * Processes the pending requests, brings back the objects whose delay has
+	 * ended, removes the finished objects and updates the remaining ones.
+	 */
+	private void step(float delta) {
+		if (!inbox.isEmpty()) processInbox();
+
+		if (!isPaused) {
+			time += delta;
+			stepCnt += 1;
+			recordDelta(delta);
+			wakeDelayed(delta);
+		}
+
+		mergeAwakened();
+		removeFinished();
+
+		deferredCnt = 0;
+		if (!isPaused) {
+			isBatchingWrites = true;
+			try {
+				if (hasDeadline) updateObjectsUntilDeadline(delta);
+				else updateObjects(delta);
+			} finally {
+				isBatchingWrites = false;
+			}
+			flushWrites();
+		}
+
+		if (eventCnt > 0) dispatchCallbacks();
+	}
+
+	private BatchWriteGroup findWriteGroup(Tween tween) {
+		for (int i=0, n=writeGroups.size(); i<n; i++) {
+			BatchWriteGroup group = writeGroups.get(i);
+			if (group.accepts(tween)) return group;
+		}
+
+		BatchTweenAccessor<?> accessor = (BatchTweenAccessor<?>) tween.getAccessor();
+		BatchWriteGroup group = new BatchWriteGroup(this, accessor, tween.getType(), tween.getCombinedAttributesCount());
+		writeGroups.add(group);
+		return group;
+	}
+
+	/**
+	 * Calls the recorded callbacks. Callbacks may trigger new events, which
+	 * are appended to the buffer and dispatched during the same pass.
+	 */
+	private void dispatchCallbacks() {
+		for (int i=0; i<eventCnt; i++) {
+			TweenCallback callback = eventCallbacks[i];
+			BaseTween<?> source = eventSources[i];
+			eventCallbacks[i] = null;
+			eventSources[i] = null;
+			callback.onEvent(eventTypes[i], source);
+		}
+		eventCnt = 0;
+	}
+
+	/**
+	 * Updates the objects from the one following the last updated object,
+	 * until every object is updated or the deadline is reached. The list is
+	 * sorted by insertion order, so the position of the next object is found
+	 * back from its insertion order, even if objects were added or removed.
+	 */
+	private void updateObjectsUntilDeadline(float delta) {
+		int n = objects.size();
+		if (n == 0) return;
+
+		int idx = findObject(cursorSeq);
+		if (idx == n) idx = 0;
+		int cnt = 0;
+
+		while (cnt < n) {
+			updateObject(objects.get(idx), delta);
+			cnt += 1;
+			idx = idx+1 < n ? idx+1 : 0;
+			if ((cnt & 63) == 0 && System.nanoTime() - deadline >= 0) break;
+		}
+
+		deferredCnt = n - cnt;
+		if (deferredCnt > 0) cursorSeq = objects.get(idx).managedSeq;
+	}
+
+	/**
+	 * Returns the index of the first updated object whose insertion order is
+	 * greater than or equal to the given one.
+	 */
+	private int findObject(int seq) {
+		int lo = 0, hi = objects.size();
+		while (lo < hi) {
+			int mid = (lo + hi) >>> 1;
+			if (objects.get(mid).managedSeq - seq < 0) lo = mid + 1;
+			else hi = mid;
+		}
+		return lo;
+	}
+
+	private static final Comparator<BaseTween<?>> seqComparator = new Comparator<BaseTween<?>>() {
+		@Override public int compare(BaseTween<?> o1, BaseTween<?> o2) {
+			int diff = o1.managedSeq - o2.managedSeq;
+			return diff < 0 ? -1 : (diff > 0 ? 1 : 0);
+		}
+	};
+
+	/**
+	 * Updates an object with the time elapsed since its last update. This is
+	 * the step delta, unless the object was skipped because of its update
+	 * interval or of a deadline, in which case it gets the sum of the deltas
+	 * it missed.
+	 */
+	private void updateObject(BaseTween<?> obj, float delta) {
+		int step = (int) stepCnt;
+		int interval = obj.getUpdateInterval();
+		if (interval > 1 && (step + obj.managedSeq) % interval != 0) return;
+		if (obj.managedSlot != step-1) delta = sumDeltas(obj.managedSlot, step);
+		obj.managedSlot = step;
+		obj.update(delta);
+	}
+
+	// -------------------------------------------------------------------------
+	// Helpers -- parked objects
+	// -------------------------------------------------------------------------
+
+	/**
+	 * Stores the delta of the current step. Parked and skipped objects are
+	 * given the deltas they missed one by one, so the history must go back to
+	 * the oldest step not seen by an object. When it is full, it is trimmed to
+	 * that step, or grown if it can't be trimmed enough.
+	 */
+	private void recordDelta(float delta) {
+		int step = (int) stepCnt;
+
+		if (step - historyStart >= stepDeltas.length) {
+			historyStart = getOldestManagedStep() + 1;
+
+			if (step - historyStart >= stepDeltas.length/2) {
+				float[] tmp = new float[stepDeltas.length*2];
+				for (int s=historyStart; s-step < 0; s++) tmp[s & (tmp.length-1)] = stepDeltas[s & (stepDeltas.length-1)];
+				stepDeltas = tmp;
+			}
+		}
+
+		stepDeltas[step & (stepDeltas.length-1)] = delta;
+	}
+
+	private int getOldestManagedStep() {
+		int step = (int) stepCnt;
+		int oldestStep = step - 1;
+		for (int i=0, n=objects.size(); i<n; i++) oldestStep = older(oldestStep, objects.get(i).managedSlot);
+		for (int i=0, n=awakened.size(); i<n; i++) oldestStep = older(oldestStep, awakened.get(i).managedSlot);
+		for (int i=0; i<delayedCnt; i++) oldestStep = older(oldestStep, parkedSteps[i]);
+		return oldestStep;
+	}
+
+	private static int older(int step1, int step2) {
+		return step2 - step1 < 0 ? step2 : step1;
+	}
+
+	/**
+	 * Sums the deltas of the steps following fromStep, up to toStep, in the
+	 * order they were applied.
+	 */
+	private float sumDeltas(int fromStep, int toStep) {
+		float sum = 0;
+		for (int s=fromStep+1; s-toStep <= 0; s++) sum += stepDeltas[s & (stepDeltas.length-1)];
+		return sum;
+	}
+
+	/**
+	 * Gives a parked object the deltas of the steps following its last
+	 * update, up to the given step, one by one, exactly as if it had been
+	 * updated at each of these steps.
+	 */
+	private void catchUp(BaseTween<?> obj, int toStep) {
+		for (int s=obj.managedSlot+1; s-toStep <= 0; s++) obj.advanceDelay(stepDeltas[s & (stepDeltas.length-1)]);
+		obj.managedSlot = toStep;
+	}
+
+	/**
+	 * Wakes the parked objects whose delay ends during the current step. The
+	 * heap is sorted by the time at which each object must be checked. A
+	 * checked object is brought up to date, and the float test of
+	 * {@link BaseTween} is used to know if it starts now. If it doesn't, it
+	 * is parked again, and checked when half of its remaining delay has
+	 * elapsed. The rounding errors of the float sums are much smaller than
+	 * that, so the object can't start before its next check. Once its
+	 * remaining delay is about a step long, it is checked at every step.
+	 */
+	private void wakeDelayed(float delta) {
+		int step = (int) stepCnt;
+
+		while (delayedCnt > 0 && checkTimes[0] <= time) {
+			BaseTween<?> obj = delayed[0];
+			unpark(obj);
+			catchUp(obj, step-1);
+
+			if (obj.getCurrentTime() + delta >= obj.getDelay()) awakened.add(obj);
+			else rechecked.add(obj);
+		}
+
+		for (int i=0, n=rechecked.size(); i<n; i++) park(rechecked.get(i), delta);
+		rechecked.clear();
+	}
+
+	private void processInbox() {
+		for (TweenInbox.Request req = inbox.drain(); req != null; req = req.next) {
+			switch (req.action) {
+				case TweenInbox.ADD: add((BaseTween<?>) req.object); break;
+				case TweenInbox.KILL_TARGET: killTarget(req.object); break;
+				case TweenInbox.KILL_TARGET_TYPE: killTarget(req.object, req.arg); break;
+				case TweenInbox.KILL: if (isSameObject(req)) ((BaseTween<?>) req.object).kill(); break;
+				case TweenInbox.PAUSE: if (isSameObject(req)) ((BaseTween<?>) req.object).pause(); break;
+				case TweenInbox.RESUME: if (isSameObject(req)) ((BaseTween<?>) req.object).resume(); break;
+			}
+		}
+	}
+
+	private boolean isSameObject(TweenInbox.Request req) {
+		BaseTween<?> obj = (BaseTween<?>) req.object;
+		return obj.getGeneration() == req.arg && obj.manager == this;
+	}
+
+	/**
+	 * Brings back an object that was set aside. Its elapsed time starts from
+	 * now: a paused object does not see the time passing, and a parked one
+	 * already got the time spent in the heap.
+	 */
+	private void reinsert(BaseTween<?> obj) {
+		obj.managedSlot = (int) stepCnt;
+		if (isDelayed(obj)) park(obj, stepDeltas[(int) stepCnt & (stepDeltas.length-1)]);
+		else awakened.add(obj);
+	}
+
+	private boolean isDelayed(BaseTween<?> obj) {
+		return obj.isStarted() && !obj.isInitialized() && !obj.isPaused() && !obj.isFinished()
+			&& obj.getCurrentTime() < obj.getDelay();
+	}
+
+	/**
+	 * Moves the awakened objects back to the list of updated objects. Both
+	 * lists are sorted by insertion order, so they are merged from the end,
+	 * which only shifts the objects that were added after the first awakened
+	 * one.
+	 */
+	private void mergeAwakened() {
+		int k = awakened.size();
+		if (k == 0) return;
+		if (k > 1) Collections.sort(awakened, seqComparator);
+
+		int i = objects.size()-1;
+		int j = k-1;
+		for (int ii=0; ii<k; ii++) objects.add(null);
+
+		for (int w=objects.size()-1; j>=0; w--) {
+			BaseTween<?> obj = awakened.get(j);
+			if (i >= 0 && objects.get(i).managedSeq - obj.managedSeq > 0) {
+				objects.set(w, objects.get(i--));
+			} else {
+				objects.set(w, obj);
+				j -= 1;
+			}
+		}
+
+		awakened.clear();
+	}
+
+	private void unpause(BaseTween<?> obj) {
+		int idx = obj.managedSlot;
+		BaseTween<?> last = paused.remove(paused.size()-1);
+		if (last != obj) {
+			paused.set(idx, last);
+			last.managedSlot = idx;
+		}
+		obj.flags &= ~BaseTween.SET_ASIDE;
+	}
+
+	/**
+	 * Parks an object still waiting for the end of its delay. Parked objects
+	 * live in a binary heap sorted by check time, so the update loop only
+	 * needs to look at its root, whatever the number of scheduled objects.
+	 * The given delta, the last one seen by the object, tells how long a step
+	 * is. While the object is parked, the heap keeps the step of its last
+	 * update, and the object keeps its position in the heap.
+	 */
+	private void park(BaseTween<?> obj, float delta) {
+		if (delayedCnt == delayed.length) {
+			BaseTween<?>[] tmp = new BaseTween<?>[delayed.length*2];
+			double[] tmpTimes = new double[delayed.length*2];
+			int[] tmpSteps = new int[delayed.length*2];
+			System.arraycopy(delayed, 0, tmp, 0, delayedCnt);
+			System.arraycopy(checkTimes, 0, tmpTimes, 0, delayedCnt);
+			System.arraycopy(parkedSteps, 0, tmpSteps, 0, delayedCnt);
+			delayed = tmp;
+			checkTimes = tmpTimes;
+			parkedSteps = tmpSteps;
+		}
+
+		float remaining = obj.getDelay() - obj.getCurrentTime();
+		float step = Math.abs(delta);
+		boolean isClose = remaining <= 2*step || step <= obj.getDelay() * 0x1p-20f;
+
+		delayed[delayedCnt] = obj;
+		checkTimes[delayedCnt] = isClose ? time : time + remaining/2;
+		parkedSteps[delayedCnt] = obj.managedSlot;
+		obj.managedSlot = delayedCnt;
+		obj.flags |= BaseTween.PARKED;
+		delayedCnt += 1;
+		siftUp(obj.managedSlot);
+	}
+
+	private void unpark(BaseTween<?> obj) {
+		int idx = obj.managedSlot;
+		delayedCnt -= 1;
+		obj.managedSlot = parkedSteps[idx];
+		obj.flags &= ~BaseTween.PARKED;
+
+		if (idx < delayedCnt) {
+			delayed[idx] = delayed[delayedCnt];
+			checkTimes[idx] = checkTimes[delayedCnt];
+			parkedSteps[idx] = parkedSteps[delayedCnt];
+			delayed[idx].managedSlot = idx;
+			delayed[delayedCnt] = null;
+			siftDown(idx);
+			siftUp(idx);
+		} else {
+			delayed[delayedCnt] = null;
+		}
+	}
+
+	private void siftUp(int idx) {
+		BaseTween<?> obj = delayed[idx];
+		double checkTime = checkTimes[idx];
+		int parkedStep = parkedSteps[idx];
+		while (idx > 0) {
+			int parentIdx = (idx-1) / 2;
+			BaseTween<?> parent = delayed[parentIdx];
+			if (!isBefore(checkTime, obj, checkTimes[parentIdx], parent)) break;
+			moveParked(parentIdx, idx);
+			idx = parentIdx;
+		}
+		delayed[idx] = obj;
+		checkTimes[idx] = checkTime;
+		parkedSteps[idx] = parkedStep;
+		obj.managedSlot = idx;
+	}
+
+	private void siftDown(int idx) {
+		BaseTween<?> obj = delayed[idx];
+		double checkTime = checkTimes[idx];
+		int parkedStep = parkedSteps[idx];
+		while (true) {
+			int childIdx = idx*2 + 1;
+			if (childIdx >= delayedCnt) break;
+			if (childIdx+1 < delayedCnt && isBefore(checkTimes[childIdx+1], delayed[childIdx+1], checkTimes[childIdx], delayed[childIdx])) childIdx += 1;
+			if (!isBefore(checkTimes[childIdx], delayed[childIdx], checkTime, obj)) break;
+			moveParked(childIdx, idx);
+			idx = childIdx;
+		}
+		delayed[idx] = obj;
+		checkTimes[idx] = checkTime;
+		parkedSteps[idx] = parkedStep;
+		obj.managedSlot = idx;
+	}
+
+	private void moveParked(int fromIdx, int toIdx) {
+		delayed[toIdx] = delayed[fromIdx];
+		checkTimes[toIdx] = checkTimes[fromIdx];
+		parkedSteps[toIdx] = parkedSteps[fromIdx];
+		delayed[toIdx].managedSlot = toIdx;
+	}
+
+	private static boolean isBefore(double checkTime1, BaseTween<?> o1, double checkTime2, BaseTween<?> o2) {
+		if (checkTime1 != checkTime2) return checkTime1 < checkTime2;
+		return o1.managedSeq - o2.managedSeq < 0;
+	}
+
+	/**
+	 * Frees every finished object and compacts the list in a single pass,
+	 * keeping the update order of the remaining objects. Removing them one by
+	 * one would shift the tail of the list each time, which is quadratic when
+	 * a lot of tweens complete during the same frame. Paused objects are moved
+	 * to their own list during the same pass.
+	 */
+	private void removeFinished() {
+		int n = objects.size();
+		int cnt = 0;
+
+		for (int i=0; i<n; i++) {
+			BaseTween<?> obj = objects.get(i);
+			if (obj.isFinished() && (obj.flags & BaseTween.AUTO_REMOVE) != 0) {
+				unindex(obj);
+				obj.free();
+			} else if (obj.isPaused()) {
+				obj.managedSlot = paused.size();
+				obj.flags |= BaseTween.SET_ASIDE;
+				paused.add(obj);
+			} else {
+				if (cnt != i) objects.set(cnt, obj);
+				cnt += 1;
+			}
+		}
+
+		if (cnt < n) objects.subList(cnt, n).clear();
+	}
+
+	/**
+	 * Attaches the given object and its children to the manager, and links
+	 * every tween of the given object to the list of tweens sharing its
+	 * target. These lists are intrusive (they are made of the tweens
+	 * themselves), and their heads are recycled, so maintaining the index
+	 * does not allocate anything once the map has grown to its steady-state
+	 * size.
+	 * <p/>
+	 *
+	 * The lists are singly linked, to keep the tweens small, and kept in the
+	 * order of addition. The finished objects are removed in that same order,
+	 * so unlinking a tween almost always unlinks the first one of its list,
+	 * even when thousands of tweens share a target. Only the tweens killed
+	 * before the older ones of their target walk the list.
+	 */
+	private void index(BaseTween<?> root, BaseTween<?> obj) {
+		obj.manager = this;
+
+		if (obj instanceof Tween) {
+			Tween tween = (Tween) obj;
+			Object target = tween.getTarget();
+			if (target == null) return;
+
+			tween.managedRoot = root;
+			tween.nextInTarget = null;
+
+			TargetTweens list = targets.get(target);
+			if (list == null) {
+				list = spareTargetTweens.isEmpty() ? new TargetTweens() : spareTargetTweens.remove(spareTargetTweens.size()-1);
+				list.first = tween;
+				targets.put(target, list);
+			} else {
+				list.last.nextInTarget = tween;
+			}
+			list.last = tween;
+
+		} else {
+			List<BaseTween<?>> children = ((Timeline)obj).children;
+			for (int i=0, n=children.size(); i<n; i++) index(root, children.get(i));
+		}
+	}
+
+	private void unindex(BaseTween<?> obj) {
+		if (obj instanceof Tween) {
+			Tween tween = (Tween) obj;
+			if (tween.managedRoot == null) return;
+
+			Object target = tween.getTarget();
+			TargetTweens list = targets.get(target);
+			if (list.first == tween) {
+				list.first = tween.nextInTarget;
+			} else {
+				Tween prev = list.first;
+				while (prev.nextInTarget != tween) prev = prev.nextInTarget;
+				prev.nextInTarget = tween.nextInTarget;
+				if (list.last == tween) list.last = prev;
+			}
+
+			if (list.first == null) {
+				targets.remove(target);
+				list.last = null;
+				spareTargetTweens.add(list);
+			}
+
+			tween.managedRoot = null;
+			tween.nextInTarget = null;
+
+		} else {
+			List<BaseTween<?>> children = ((Timeline)obj).children;
+			for (int i=0, n=children.size(); i<n; i++) unindex(children.get(i));
+		}
+	}
+
+	private Tween getFirstTween(Object target) {
+		TargetTweens list = targets.get(target);
+		return list != null ? list.first : null;
+	}
+
 	private static int getTweensCount(List<BaseTween<?>> objs) {
 		int cnt = 0;
 		for (int i=0, n=objs.size(); i<n; i++) {
@@ -234,4 +1102,12 @@ public class TweenManager {
 		}
 		return cnt;
 	}
+
+	/**
+	 * The first and last tweens of the list of tweens sharing a target.
+	 */
+	private static class TargetTweens {
+		public Tween first;
+		public Tween last;
+	}
 }
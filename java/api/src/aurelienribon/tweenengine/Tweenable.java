@@ -0,0 +1,47 @@
+package aurelienribon.tweenengine;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a field, or the getter of a getter/setter pair, as an attribute
+ * that can be tweened. The annotation processor of the tween-engine-processor
+ * module generates a TweenAccessor for every class using this annotation,
+ * named after the class with an "Accessor" suffix, in the same package. No
+ * reflection is involved, so the generated accessors work with GWT too.
+ * <p/>
+ *
+ * <pre> {@code
+ * public class Particle {
+ *     @Tweenable float x;
+ *     @Tweenable float y;
+ *     @Tweenable("OPACITY") public float getAlpha() {...}
+ *     public void setAlpha(float alpha) {...}
+ * }
+ *
+ * ParticleAccessor.register();
+ * Tween.to(particle, ParticleAccessor.ALL, 1.0f).target(100, 200, 1).start(manager);
+ * Tween.to(particle, ParticleAccessor.OPACITY, 1.0f).target(0).start(manager);
+ * }</pre>
+ *
+ * The generated accessor defines one tween type constant per attribute,
+ * numbered from 1 in declaration order, and the ALL (0) tween type, which
+ * combines every attribute (see {@link Tween#setCombinedAttributesLimit(int)}
+ * if there are more than 3 of them). The attributes can be float, double,
+ * int or long ones, and they must not be private.
+ *
+ * @see TweenAccessor
+ * @author Aurelien Ribon | http://www.aurelienribon.com/
+ */
+@Retention(RetentionPolicy.SOURCE)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface Tweenable {
+
+	/**
+	 * The name of the tween type constant. Defaults to the name of the field
+	 * or property, in upper case with underscores.
+	 */
+	String value() default "";
+}
@@ -0,0 +1,30 @@
+package aurelienribon.tweenengine;
+
+/**
+ * The checks used by the tests. A failed check throws an AssertionError.
+ */
+public class Assert {
+	public static void assertTrue(String message, boolean value) {
+		if (!value) throw new AssertionError(message);
+	}
+
+	public static void assertEquals(String message, long expected, long actual) {
+		if (expected != actual) throw new AssertionError(message + ": expected " + expected + " but was " + actual);
+	}
+
+	public static void assertEquals(String message, float expected, float actual) {
+		if (Float.floatToIntBits(expected) != Float.floatToIntBits(actual)) {
+			throw new AssertionError(message + ": expected " + expected + " but was " + actual);
+		}
+	}
+
+	public static void assertEquals(String message, float expected, float actual, float epsilon) {
+		if (!(Math.abs(expected - actual) <= epsilon)) {
+			throw new AssertionError(message + ": expected " + expected + " but was " + actual);
+		}
+	}
+
+	public static void assertSame(String message, Object expected, Object actual) {
+		if (expected != actual) throw new AssertionError(message + ": expected " + expected + " but was " + actual);
+	}
+}
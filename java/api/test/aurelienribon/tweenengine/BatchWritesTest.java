@@ -0,0 +1,67 @@
+package aurelienribon.tweenengine;
+
+import static aurelienribon.tweenengine.Assert.*;
+
+/**
+ * Checks that the tweens using a batch accessor produce the same values as
+ * the ones using a regular accessor, even when a tween starts from the
+ * values written by another one during the same update.
+ */
+public class BatchWritesTest {
+	public static class Value {
+		public float value;
+	}
+
+	public static class BatchValue {
+		public float value;
+	}
+
+	public static class ValueAccessor implements TweenAccessor<Value> {
+		@Override public int getValues(Value target, int tweenType, float[] returnValues) {
+			returnValues[0] = target.value;
+			return 1;
+		}
+
+		@Override public void setValues(Value target, int tweenType, float[] newValues) {
+			target.value = newValues[0];
+		}
+	}
+
+	public static class BatchValueAccessor implements BatchTweenAccessor<BatchValue> {
+		@Override public int getValues(BatchValue target, int tweenType, float[] returnValues) {
+			returnValues[0] = target.value;
+			return 1;
+		}
+
+		@Override public void setValues(BatchValue target, int tweenType, float[] newValues) {
+			target.value = newValues[0];
+		}
+
+		@Override public void setValues(Object[] targets, int targetsCnt, int tweenType, float[] newValues, int valuesCnt) {
+			for (int i=0; i<targetsCnt; i++) ((BatchValue) targets[i]).value = newValues[i*valuesCnt];
+		}
+	}
+
+	public static void testSequenceOnSameTarget() {
+		Tween.registerAccessor(Value.class, new ValueAccessor());
+		Tween.registerAccessor(BatchValue.class, new BatchValueAccessor());
+		Value value = new Value();
+		BatchValue batchValue = new BatchValue();
+
+		TweenManager manager = new TweenManager();
+		Timeline.createSequence()
+			.push(Tween.to(value, 0, 1).target(100))
+			.push(Tween.to(value, 0, 1).target(200))
+			.start(manager);
+		Timeline.createSequence()
+			.push(Tween.to(batchValue, 0, 1).target(100))
+			.push(Tween.to(batchValue, 0, 1).target(200))
+			.start(manager);
+
+		for (int i=1; i<=25; i++) {
+			manager.update(0.1f);
+			assertEquals("value at frame " + i, value.value, batchValue.value);
+		}
+		assertEquals("final value", 200, batchValue.value);
+	}
+}
@@ -0,0 +1,78 @@
+package aurelienribon.tweenengine;
+
+import static aurelienribon.tweenengine.Assert.*;
+import java.nio.FloatBuffer;
+
+/**
+ * Checks that a BufferTweenBatch writes the values of a regular batch in
+ * its buffer, straight with the default kernel, and through the output array
+ * with a custom kernel.
+ */
+public class BufferTweenBatchTest {
+	public static void testSameValuesAsBatch() {
+		checkSameValues(0, 2, null);
+		checkSameValues(3, 5, null);
+		checkSameValues(0, 2, new ScalarBatchKernel());
+		checkSameValues(3, 5, new ScalarBatchKernel());
+	}
+
+	public static void testNoIntermediateArrayWithDefaultKernel() {
+		BufferTweenBatch batch = new BufferTweenBatch(4, 2, BufferTweenBatch.allocateBuffer(8));
+		for (int i=0; i<4; i++) batch.target(batch.add(1), 10, 20);
+		batch.update(0.5f);
+		assertEquals("buffer", 5f, batch.getBuffer().get(0));
+		assertEquals("output array", 0f, batch.getValues()[0]);
+	}
+
+	public static void testKernelIsUsed() {
+		final int[] callsCnt = new int[1];
+		BatchKernel kernel = new ScalarBatchKernel() {
+			@Override public void interpolate(float[] ratios, float[] startValues, float[] targetValues, float[] values, int attrsCnt, int fromSlot, int toSlot) {
+				callsCnt[0] += 1;
+				super.interpolate(ratios, startValues, targetValues, values, attrsCnt, fromSlot, toSlot);
+			}
+		};
+
+		BufferTweenBatch batch = new BufferTweenBatch(4, 2, BufferTweenBatch.allocateBuffer(8));
+		batch.setKernel(kernel);
+		for (int i=0; i<4; i++) batch.target(batch.add(1), 10, 20);
+		batch.update(0.5f);
+		assertTrue("kernel called", callsCnt[0] > 0);
+	}
+
+	// -------------------------------------------------------------------------
+	// Helpers
+	// -------------------------------------------------------------------------
+
+	private static void checkSameValues(int offset, int stride, BatchKernel kernel) {
+		int capacity = 20;
+		FloatBuffer buffer = BufferTweenBatch.allocateBuffer(offset + capacity * stride);
+		for (int i=0; i<buffer.limit(); i++) buffer.put(i, -1);
+
+		TweenBatch expected = new TweenBatch(capacity, 2);
+		TweenBatch batch = new BufferTweenBatch(capacity, 2, buffer, offset, stride);
+		if (kernel != null) batch.setKernel(kernel);
+
+		for (TweenBatch b : new TweenBatch[] {expected, batch}) {
+			for (int i=0; i<capacity; i++) {
+				int slot = b.add(0.5f + i / 10f);
+				b.from(slot, i, -i).target(slot, 10 * i, 20).delay(slot, i / 20f).repeatYoyo(slot, 1, 0);
+			}
+		}
+
+		for (int frame=0; frame<100; frame++) {
+			expected.update(1/30f);
+			batch.update(1/30f);
+			for (int slot=0; slot<capacity; slot++) {
+				if (expected.getCurrentTime(slot) < slot / 20f) continue;
+				for (int ii=0; ii<2; ii++) {
+					String msg = "slot " + slot + ", value " + ii + ", frame " + frame;
+					assertEquals(msg, expected.getValues()[slot*2 + ii], buffer.get(offset + slot*stride + ii));
+				}
+			}
+		}
+
+		assertEquals("buffer position", 0, buffer.position());
+		for (int i=0; i<offset; i++) assertEquals("before offset", -1f, buffer.get(i));
+	}
+}
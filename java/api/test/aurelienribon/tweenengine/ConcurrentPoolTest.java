@@ -0,0 +1,106 @@
+package aurelienribon.tweenengine;
+
+import static aurelienribon.tweenengine.Assert.*;
+import java.lang.reflect.Field;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Checks that a concurrent pool keeps counting the objects of the threads
+ * which ended, without keeping a set of counters for each of them, that its
+ * size and clear() cover the caches of every thread, and that it takes over
+ * the objects and the counters of the pool it replaces.
+ */
+public class ConcurrentPoolTest {
+	public static void testCountersOfEndedThreads() throws Exception {
+		final ConcurrentPool<Tween> pool = new ConcurrentPool<Tween>(createPool(), 4);
+
+		for (int i=0; i<20; i++) {
+			Thread thread = new Thread(new Runnable() {
+				@Override public void run() {
+					for (int j=0; j<10; j++) pool.free(pool.get());
+					pool.get();
+				}
+			});
+			thread.start();
+			thread.join();
+		}
+
+		PoolStats stats = pool.getStats();
+		assertEquals("gets", 220, stats.getGets());
+		assertEquals("frees", 200, stats.getFrees());
+		assertEquals("outstanding", 20, stats.getOutstanding());
+		assertTrue("caches", getCaches(pool).size() <= 1); // the test thread
+	}
+
+	public static void testSizeAndClearCoverEveryThread() throws Exception {
+		final ConcurrentPool<Tween> pool = new ConcurrentPool<Tween>(createPool(), 4);
+		final CountDownLatch filled = new CountDownLatch(1);
+		final CountDownLatch cleared = new CountDownLatch(1);
+
+		Thread thread = new Thread(new Runnable() {
+			@Override public void run() {
+				Tween[] tweens = {pool.get(), pool.get(), pool.get()};
+				for (Tween tween : tweens) pool.free(tween);
+				filled.countDown();
+				try {cleared.await();} catch (InterruptedException ex) {}
+				pool.get();
+			}
+		});
+		thread.start();
+		filled.await();
+
+		assertEquals("size", 3, pool.size());
+		pool.clear();
+		assertEquals("cleared size", 0, pool.size());
+
+		cleared.countDown();
+		thread.join();
+		assertEquals("creates", 4, pool.getStats().getCreates());
+	}
+
+	public static void testReplacePool() {
+		Pool<Tween> source = createPool();
+		Tween[] tweens = new Tween[5];
+		for (int i=0; i<tweens.length; i++) tweens[i] = source.get();
+		for (int i=0; i<3; i++) source.free(tweens[i]);
+
+		source.replaceWith(new ConcurrentPool<Tween>(source, 2));
+		assertTrue("replaced", source.isReplaced());
+		assertEquals("size", 3, source.size());
+		checkStats(source.getStats(), 5, 5, 3, 2);
+
+		for (int i=0; i<3; i++) tweens[i] = source.get();
+		checkStats(source.getStats(), 8, 5, 3, 5);
+		assertEquals("emptied", 0, source.size());
+
+		source.resetStats();
+		source.free(tweens[0]);
+		checkStats(source.getStats(), 0, 0, 1, 4);
+	}
+
+	// -------------------------------------------------------------------------
+	// Helpers
+	// -------------------------------------------------------------------------
+
+	private static Pool<Tween> createPool() {
+		return new Pool<Tween>(4, null) {
+			@Override protected Tween create() {
+				return Tween.call(null);
+			}
+		};
+	}
+
+	private static void checkStats(PoolStats stats, long gets, long creates, long frees, int outstanding) {
+		assertEquals("gets", gets, stats.getGets());
+		assertEquals("creates", creates, stats.getCreates());
+		assertEquals("frees", frees, stats.getFrees());
+		assertEquals("outstanding", outstanding, stats.getOutstanding());
+	}
+
+	private static List<?> getCaches(ConcurrentPool<?> pool) throws Exception {
+		Field field = ConcurrentPool.class.getDeclaredField("caches");
+		field.setAccessible(true);
+		return (List<?>) field.get(pool);
+	}
+}
@@ -0,0 +1,189 @@
+package aurelienribon.tweenengine;
+
+import static aurelienribon.tweenengine.Assert.*;
+import aurelienribon.tweenengine.equations.Linear;
+import aurelienribon.tweenengine.equations.Quad;
+
+/**
+ * Checks the updates with a deadline. A deadline already reached lets 64
+ * objects through per update, which must be taken in a round-robin fashion,
+ * and the skipped objects must catch up with the time they missed, so that
+ * they end up exactly like the objects of a manager updated without
+ * deadline, even when objects are added and removed between the updates.
+ */
+public class DeadlineTest {
+	private static final int OBJECTS_PER_UPDATE = 64;
+
+	public static class Value {
+		public float value;
+	}
+
+	public static class ValueAccessor implements TweenAccessor<Value> {
+		@Override public int getValues(Value target, int tweenType, float[] returnValues) {
+			returnValues[0] = target.value;
+			return 1;
+		}
+
+		@Override public void setValues(Value target, int tweenType, float[] newValues) {
+			target.value = newValues[0];
+		}
+	}
+
+	public static void testRoundRobin() {
+		Tween.registerAccessor(Value.class, new ValueAccessor());
+		TweenManager manager = new TweenManager();
+		Value[] values = new Value[150];
+		for (int i=0; i<values.length; i++) {
+			values[i] = new Value();
+			Tween.to(values[i], 0, 10).target(100).ease(Linear.INOUT).start(manager);
+		}
+
+		// 0-63 updated
+		manager.update(0.1f, getPastDeadline());
+		assertEquals("deferred", values.length - OBJECTS_PER_UPDATE, manager.getDeferredCount());
+		checkValues(values, 0, 64, 1);
+		checkValues(values, 64, 150, 0);
+
+		// 64-127 updated with both deltas
+		manager.update(0.1f, getPastDeadline());
+		assertEquals("deferred", values.length - OBJECTS_PER_UPDATE, manager.getDeferredCount());
+		checkValues(values, 0, 64, 1);
+		checkValues(values, 64, 128, 2);
+		checkValues(values, 128, 150, 0);
+
+		// 128-149 with three deltas, then wraps around to 0-41 with two
+		manager.update(0.1f, getPastDeadline());
+		checkValues(values, 0, 42, 3);
+		checkValues(values, 42, 64, 1);
+		checkValues(values, 64, 128, 2);
+		checkValues(values, 128, 150, 3);
+
+		// everything is updated again without deadline
+		manager.update(0.1f, System.nanoTime() + 60000000000L);
+		assertEquals("deferred", 0, manager.getDeferredCount());
+		manager.update(0.1f);
+		assertEquals("deferred", 0, manager.getDeferredCount());
+		checkValues(values, 0, 150, 5);
+	}
+
+	public static void testCursorAfterRemovals() {
+		Tween.registerAccessor(Value.class, new ValueAccessor());
+		TweenManager manager = new TweenManager();
+		Value[] values = new Value[100];
+		Tween[] tweens = new Tween[values.length];
+		for (int i=0; i<values.length; i++) {
+			values[i] = new Value();
+			tweens[i] = Tween.to(values[i], 0, 10).target(100).ease(Linear.INOUT).start(manager);
+		}
+
+		// the next update starts at 64, which is removed along with its
+		// neighbours, so it must start with 70, then the added object, then
+		// wrap around to 0-32
+		manager.update(0.1f, getPastDeadline());
+		for (int i=60; i<70; i++) tweens[i].kill();
+		Value added = new Value();
+		Tween.to(added, 0, 10).target(100).ease(Linear.INOUT).start(manager);
+
+		manager.update(0.1f, getPastDeadline());
+		assertEquals("deferred", values.length - 10 + 1 - OBJECTS_PER_UPDATE, manager.getDeferredCount());
+		checkValues(values, 70, 100, 2);
+		assertEquals("added", 1, added.value, 1e-4f);
+		checkValues(values, 0, 33, 2);
+		checkValues(values, 33, 60, 1);
+		checkValues(values, 60, 64, 1);
+		checkValues(values, 64, 70, 0);
+	}
+
+	public static void testPastDeadlineConverges() {
+		Tween.registerAccessor(Value.class, new ValueAccessor());
+		int n = 400;
+		Fixture plain = new Fixture(n);
+		Fixture budgeted = new Fixture(n);
+		for (int i=0; i<300; i++) {
+			plain.start(i);
+			budgeted.start(i);
+		}
+
+		for (int frame=1; frame<=300; frame++) {
+			if (frame == 10) {
+				for (int i=300; i<n; i++) {
+					plain.start(i);
+					budgeted.start(i);
+				}
+			}
+			if (frame == 20) {
+				for (int i=0; i<n; i+=5) {
+					plain.tweens[i].kill();
+					budgeted.tweens[i].kill();
+				}
+			}
+
+			plain.manager.update(1/60f);
+			budgeted.manager.update(1/60f, getPastDeadline());
+			if (frame == 1) assertEquals("deferred", 300 - OBJECTS_PER_UPDATE, budgeted.manager.getDeferredCount());
+		}
+
+		// the budgeted objects catch up with the deltas they missed
+		plain.manager.update(0);
+		for (int i=0; i<100 && budgeted.manager.size() > 0; i++) budgeted.manager.update(0, getPastDeadline());
+		assertEquals("plain size", 0, plain.manager.size());
+		assertEquals("budgeted size", 0, budgeted.manager.size());
+
+		for (int i=0; i<n; i++) {
+			if (i % 5 == 0) continue;
+			assertEquals("value " + i, plain.values[i].value, budgeted.values[i].value, 1e-3f);
+			assertEquals("events " + i, plain.eventsCnts[i], budgeted.eventsCnts[i]);
+			assertEquals("completions " + i, 1, budgeted.completionsCnts[i]);
+			assertEquals("plain completions " + i, 1, plain.completionsCnts[i]);
+		}
+	}
+
+	// -------------------------------------------------------------------------
+	// Helpers
+	// -------------------------------------------------------------------------
+
+	private static class Fixture {
+		public final TweenManager manager = new TweenManager();
+		public final Value[] values;
+		public final Tween[] tweens;
+		public final int[] eventsCnts;
+		public final int[] completionsCnts;
+
+		public Fixture(int n) {
+			values = new Value[n];
+			tweens = new Tween[n];
+			eventsCnts = new int[n];
+			completionsCnts = new int[n];
+		}
+
+		public void start(final int i) {
+			values[i] = new Value();
+			tweens[i] = Tween.to(values[i], 0, 0.5f + (i % 7) * 0.1f)
+				.target(100)
+				.ease(Quad.INOUT)
+				.repeatYoyo(i % 3, 0.05f)
+				.setCallback(new TweenCallback() {
+					@Override public void onEvent(int type, BaseTween<?> source) {
+						eventsCnts[i] += 1;
+						if (type == COMPLETE) completionsCnts[i] += 1;
+					}
+				})
+				.setCallbackTriggers(TweenCallback.ANY)
+				.start(manager);
+		}
+	}
+
+	private static long getPastDeadline() {
+		return System.nanoTime() - 1000000000L;
+	}
+
+	/**
+	 * Checks the values of linear tweens from 0 to 100 in 10 seconds, after
+	 * the given number of updates of 0.1 seconds.
+	 */
+	private static void checkValues(Value[] values, int from, int to, int updatesCnt) {
+		for (int i=from; i<to; i++) {
+			assertEquals("value " + i, updatesCnt, values[i].value, 1e-4f);
+		}
+	}
+}
@@ -0,0 +1,126 @@
+package aurelienribon.tweenengine;
+
+import static aurelienribon.tweenengine.Assert.*;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+/**
+ * Pins the instance sizes of the tweens and timelines, so that the state
+ * needed by the managers does not silently grow every pooled object, and the
+ * retained sizes of pooled tweens, value arrays included. The sizes are
+ * those of a 64-bit JVM with compressed references; the test does nothing
+ * on other layouts.
+ */
+public class FootprintTest {
+	public static void testInstanceSizes() throws Exception {
+		Object unsafe = getUnsafe();
+		if (unsafe == null || getFirstFieldOffset(unsafe) != 12) return;
+
+		assertEquals("tween size", 120, getInstanceSize(unsafe, Tween.class));
+		assertEquals("timeline size", 80, getInstanceSize(unsafe, Timeline.class));
+	}
+
+	public static void testRetainedSizesOfPooledTweens() throws Exception {
+		Object unsafe = getUnsafe();
+		if (unsafe == null || getFirstFieldOffset(unsafe) != 12 || getArrayBaseOffset(unsafe) != 16) return;
+		Tween.registerAccessor(Values.class, new ValuesAccessor());
+
+		// 120 bytes of tween, and three float[1] or float[2] of 24 bytes
+		assertEquals("1 attribute", 192, getRetainedSize(unsafe, createPooledTween(1)));
+		assertEquals("2 attributes", 192, getRetainedSize(unsafe, createPooledTween(2)));
+	}
+
+	// -------------------------------------------------------------------------
+	// Helpers
+	// -------------------------------------------------------------------------
+
+	private static class Probe {
+		int value;
+	}
+
+	public static class Values {
+		public final float[] values;
+
+		public Values(int length) {
+			values = new float[length];
+		}
+	}
+
+	public static class ValuesAccessor implements TweenAccessor<Values> {
+		@Override public int getValues(Values target, int tweenType, float[] returnValues) {
+			System.arraycopy(target.values, 0, returnValues, 0, target.values.length);
+			return target.values.length;
+		}
+
+		@Override public void setValues(Values target, int tweenType, float[] newValues) {
+			System.arraycopy(newValues, 0, target.values, 0, target.values.length);
+		}
+	}
+
+	private static Tween createPooledTween(int attrsCnt) {
+		Tween tween = Tween.to(new Values(attrsCnt), 0, 1).target(new float[attrsCnt]).start();
+		tween.update(0.5f);
+		tween.free();
+		return tween;
+	}
+
+	private static Object getUnsafe() {
+		try {
+			Field field = Class.forName("sun.misc.Unsafe").getDeclaredField("theUnsafe");
+			field.setAccessible(true);
+			return field.get(null);
+		} catch (Exception ex) {
+			return null;
+		}
+	}
+
+	private static long getFieldOffset(Object unsafe, Field field) throws Exception {
+		Method method = unsafe.getClass().getMethod("objectFieldOffset", Field.class);
+		return (Long) method.invoke(unsafe, field);
+	}
+
+	private static int getFirstFieldOffset(Object unsafe) throws Exception {
+		return (int) getFieldOffset(unsafe, Probe.class.getDeclaredField("value"));
+	}
+
+	private static int getInstanceSize(Object unsafe, Class<?> type) throws Exception {
+		long end = 12;
+		for (Class<?> c = type; c != null; c = c.getSuperclass()) {
+			for (Field field : c.getDeclaredFields()) {
+				if (Modifier.isStatic(field.getModifiers())) continue;
+				end = Math.max(end, getFieldOffset(unsafe, field) + getFieldSize(field.getType()));
+			}
+		}
+		return (int) (end + 7) / 8 * 8;
+	}
+
+	private static int getArrayBaseOffset(Object unsafe) throws Exception {
+		Method method = unsafe.getClass().getMethod("arrayBaseOffset", Class.class);
+		return (Integer) method.invoke(unsafe, float[].class);
+	}
+
+	/**
+	 * Gets the instance size of a tween, plus the sizes of the value arrays
+	 * it holds. The empty arrays are shared by every tween, and not counted.
+	 */
+	private static int getRetainedSize(Object unsafe, Tween tween) throws Exception {
+		int size = getInstanceSize(unsafe, Tween.class);
+		for (Class<?> c = Tween.class; c != null; c = c.getSuperclass()) {
+			for (Field field : c.getDeclaredFields()) {
+				if (Modifier.isStatic(field.getModifiers()) || field.getType() != float[].class) continue;
+				field.setAccessible(true);
+				float[] array = (float[]) field.get(tween);
+				if (array != null && array.length > 0) size += (16 + array.length * 4 + 7) / 8 * 8;
+			}
+		}
+		return size;
+	}
+
+	private static int getFieldSize(Class<?> type) {
+		if (type == long.class || type == double.class) return 8;
+		if (type == short.class || type == char.class) return 2;
+		if (type == byte.class || type == boolean.class) return 1;
+		return 4;
+	}
+}
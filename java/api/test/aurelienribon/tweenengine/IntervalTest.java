@@ -0,0 +1,109 @@
+package aurelienribon.tweenengine;
+
+import static aurelienribon.tweenengine.Assert.*;
+import aurelienribon.tweenengine.equations.Quad;
+import java.lang.reflect.Field;
+import java.util.Random;
+
+/**
+ * Checks that an object updated every 2nd or 4th call follows an object
+ * updated at every call: each time it is updated, it must have caught up
+ * with the deltas it skipped, fire the same callbacks, and complete within
+ * the interval. The run is longer than the history of step deltas, so the
+ * history has to be trimmed along the way.
+ */
+public class IntervalTest {
+	public static class Value {
+		public float value;
+		public int frame; // of the last write
+	}
+
+	public static class ValueAccessor implements TweenAccessor<Value> {
+		public int frame;
+
+		@Override public int getValues(Value target, int tweenType, float[] returnValues) {
+			returnValues[0] = target.value;
+			return 1;
+		}
+
+		@Override public void setValues(Value target, int tweenType, float[] newValues) {
+			target.value = newValues[0];
+			target.frame = frame;
+		}
+	}
+
+	public static void testIntervals() throws Exception {
+		checkInterval(1);
+		checkInterval(2);
+		checkInterval(4);
+	}
+
+	// -------------------------------------------------------------------------
+	// Helpers
+	// -------------------------------------------------------------------------
+
+	private static void checkInterval(int interval) throws Exception {
+		ValueAccessor accessor = new ValueAccessor();
+		Tween.registerAccessor(Value.class, accessor);
+		TweenManager manager = new TweenManager();
+
+		Value refValue = new Value();
+		Value value = new Value();
+		int[] refEvents = new int[3];
+		int[] events = new int[3];
+		start(refValue, refEvents, manager);
+		TweenManager.setUpdateInterval(start(value, events, manager), interval);
+
+		Random rand = new Random(interval);
+		for (int frame=1; frame<=1000; frame++) {
+			accessor.frame = frame;
+			manager.update(0.002f + rand.nextFloat() * 0.01f);
+
+			if (value.frame == frame) {
+				assertEquals("value at " + frame, refValue.value, value.value, 1e-3f);
+				assertEquals("events at " + frame, refEvents[0], events[0]);
+			}
+			if (refEvents[2] > 0 && events[2] == 0) {
+				assertTrue("completed within the interval", frame - refEvents[2] < interval);
+			}
+		}
+
+		assertTrue("completed", refEvents[2] > 0 && events[2] > 0);
+		assertTrue("completion frame", events[2] >= refEvents[2] && events[2] - refEvents[2] < interval);
+		if (interval == 1) assertEquals("completion frame", refEvents[2], events[2]);
+		assertEquals("final value", refValue.value, value.value);
+		assertEquals("events", refEvents[0], events[0]);
+		assertEquals("completions", refEvents[1], events[1]);
+		assertEquals("removed", 0, manager.size());
+		assertEquals("history trimmed, not grown", 256, getHistoryLength(manager));
+	}
+
+	/**
+	 * Starts a tween recording its events count, its completions count, and
+	 * the frame of its completion, in the given array.
+	 */
+	private static Tween start(Value value, final int[] events, TweenManager manager) {
+		final ValueAccessor accessor = (ValueAccessor) Tween.getRegisteredAccessor(Value.class);
+		return Tween.to(value, 0, 1.1f)
+			.target(100)
+			.ease(Quad.INOUT)
+			.repeatYoyo(2, 0.2f)
+			.setCallback(new TweenCallback() {
+				@Override public void onEvent(int type, BaseTween<?> source) {
+					events[0] += 1;
+					if (type == COMPLETE) {
+						events[1] += 1;
+						events[2] = accessor.frame;
+					}
+				}
+			})
+			.setCallbackTriggers(TweenCallback.ANY)
+			.start(manager);
+	}
+
+	private static int getHistoryLength(TweenManager manager) throws Exception {
+		Field field = TweenManager.class.getDeclaredField("stepDeltas");
+		field.setAccessible(true);
+		return ((float[]) field.get(manager)).length;
+	}
+}
@@ -0,0 +1,44 @@
+package aurelienribon.tweenengine;
+
+import static aurelienribon.tweenengine.Assert.*;
+
+/**
+ * Checks that {@link TweenManager#killAll()} kills the objects whatever the
+ * internal list they are kept in.
+ */
+public class KillAllTest {
+	public static void testKillAll() {
+		TweenManager manager = new TweenManager();
+		Tween running = Tween.call(null).repeat(Tween.INFINITY, 1).start(manager);
+		Tween parked = Tween.call(null).delay(10).start(manager);
+		Tween paused = Tween.call(null).repeat(Tween.INFINITY, 1).start(manager);
+		Tween awakened = Tween.call(null).repeat(Tween.INFINITY, 1).start(manager);
+		manager.update(0.1f);
+
+		paused.pause();
+		awakened.pause();
+		manager.update(0.1f);
+		awakened.resume();
+
+		manager.killAll();
+		assertTrue("running killed", running.isFinished());
+		assertTrue("parked killed", parked.isFinished());
+		assertTrue("paused killed", paused.isFinished());
+		assertTrue("awakened killed", awakened.isFinished());
+
+		manager.update(0.1f);
+		assertEquals("size", 0, manager.size());
+	}
+
+	public static void testKillAllAfterResume() {
+		TweenManager manager = new TweenManager();
+		Tween tween = Tween.call(null).repeat(Tween.INFINITY, 1).start(manager);
+		tween.pause();
+		manager.update(0.1f);
+		tween.resume();
+
+		manager.killAll();
+		manager.update(0.1f);
+		assertEquals("size", 0, manager.size());
+	}
+}
@@ -0,0 +1,59 @@
+package aurelienribon.tweenengine;
+
+import static aurelienribon.tweenengine.Assert.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Checks that a parallel manager only stops the threads it created, and that
+ * it keeps updating its objects once disposed.
+ */
+public class ParallelTweenManagerTest {
+	public static void testDisposeOwnedExecutor() {
+		ParallelTweenManager manager = new ParallelTweenManager(2);
+		manager.setMinChunkSize(1);
+		int[] completions = startTweens(manager, 10);
+
+		manager.update(0.5f);
+		manager.dispose();
+		assertTrue("disposed", manager.isDisposed());
+
+		manager.update(0.6f);
+		assertEquals("completions", 10, completions[0]);
+		manager.update(0.1f);
+		assertEquals("size", 0, manager.size());
+	}
+
+	public static void testKeepGivenExecutor() {
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			ParallelTweenManager manager = new ParallelTweenManager(executor, 2);
+			manager.setMinChunkSize(1);
+			int[] completions = startTweens(manager, 10);
+
+			manager.dispose();
+			assertTrue("not disposed", !manager.isDisposed());
+			assertTrue("executor running", !executor.isShutdown());
+
+			manager.update(1.1f);
+			assertEquals("completions", 10, completions[0]);
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	// -------------------------------------------------------------------------
+	// Helpers
+	// -------------------------------------------------------------------------
+
+	private static int[] startTweens(TweenManager manager, int n) {
+		final int[] completions = new int[1];
+		TweenCallback callback = new TweenCallback() {
+			@Override public void onEvent(int type, BaseTween<?> source) {
+				synchronized (completions) {completions[0] += 1;}
+			}
+		};
+		for (int i=0; i<n; i++) Tween.call(callback).delay(1).start(manager);
+		return completions;
+	}
+}
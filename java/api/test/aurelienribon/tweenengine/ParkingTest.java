@@ -0,0 +1,97 @@
+package aurelienribon.tweenengine;
+
+import static aurelienribon.tweenengine.Assert.*;
+import java.util.Random;
+
+/**
+ * Checks that the objects parked by a manager during their delay start on
+ * the very same frame as an object updated at every frame.
+ */
+public class ParkingTest {
+	public static void testExactStartFrames() {
+		checkStartFrame(0.3f, 0.1f, 3);
+		checkStartFrame(0.9f, 1/60f, 55);
+	}
+
+	public static void testRandomDelays() {
+		Random rand = new Random(42);
+		for (int i=0; i<500; i++) {
+			float delay = rand.nextInt(4) == 0 ? rand.nextInt(40) / 10f : rand.nextFloat() * 5;
+			float[] deltas = new float[rand.nextBoolean() ? 1 : 7];
+			for (int j=0; j<deltas.length; j++) deltas[j] = rand.nextBoolean() ? 1/60f : 0.001f + rand.nextFloat() / 10;
+			checkStartFrame(delay, deltas);
+		}
+	}
+
+	public static void testLongDelays() {
+		// longer than the initial history of step deltas
+		checkStartFrame(30, 1/60f, getUnmanagedStartFrame(30, new float[] {1/60f}));
+		checkStartFrame(100, 1/60f, getUnmanagedStartFrame(100, new float[] {1/60f}));
+	}
+
+	public static void testWakeWhileParked() {
+		int[] clock = new int[1];
+		int[] frames = new int[2];
+		TweenManager manager = new TweenManager();
+		Tween tween = Tween.call(recorder(clock, frames, 0)).delay(0.9f).start(manager);
+		Tween ref = Tween.call(recorder(clock, frames, 1)).delay(0.9f).start();
+
+		for (int i=1; i<=70; i++) {
+			clock[0] = i;
+			if (i == 20) tween.pause();
+			if (i == 30) tween.resume();
+			if (i < 20 || i >= 30) ref.update(1/60f);
+			manager.update(1/60f);
+		}
+
+		assertTrue("started", frames[0] > 0);
+		assertEquals("start frame", frames[1], frames[0]);
+	}
+
+	// -------------------------------------------------------------------------
+	// Helpers
+	// -------------------------------------------------------------------------
+
+	private static void checkStartFrame(float delay, float delta, int expectedFrame) {
+		assertEquals("unmanaged start frame of " + delay + " at " + delta, expectedFrame, getUnmanagedStartFrame(delay, new float[] {delta}));
+		checkStartFrame(delay, new float[] {delta});
+	}
+
+	private static void checkStartFrame(float delay, float[] deltas) {
+		int expectedFrame = getUnmanagedStartFrame(delay, deltas);
+
+		// a never parked object keeps the manager history in use
+		TweenManager manager = new TweenManager();
+		Tween.call(null).repeat(Tween.INFINITY, 0.5f).start(manager);
+		int[] clock = new int[1];
+		int[] frame = new int[1];
+		Tween.call(recorder(clock, frame, 0)).delay(delay).start(manager);
+
+		for (int i=1; frame[0] == 0 && i <= expectedFrame; i++) {
+			clock[0] = i;
+			manager.update(deltas[i % deltas.length]);
+		}
+
+		assertEquals("start frame of " + delay, expectedFrame, frame[0]);
+	}
+
+	private static int getUnmanagedStartFrame(float delay, float[] deltas) {
+		int[] clock = new int[1];
+		int[] frame = new int[1];
+		Tween tween = Tween.call(recorder(clock, frame, 0)).delay(delay).start();
+		for (int i=1; frame[0] == 0; i++) {
+			clock[0] = i;
+			tween.update(deltas[i % deltas.length]);
+		}
+		tween.free();
+		return frame[0];
+	}
+
+	private static TweenCallback recorder(final int[] clock, final int[] frames, final int idx) {
+		return new TweenCallback() {
+			@Override public void onEvent(int type, BaseTween<?> source) {
+				if (frames[idx] == 0) frames[idx] = clock[0];
+			}
+		};
+	}
+}
@@ -0,0 +1,45 @@
+package aurelienribon.tweenengine;
+
+import static aurelienribon.tweenengine.Assert.*;
+
+/**
+ * Checks that the objects dropped by a pool, whether cleared or released by
+ * the retention policy, are handled the same way: freeing them again has no
+ * effect.
+ */
+public class PoolTest {
+	public static void testClearedObjectsStayPooled() {
+		Pool<Tween> pool = createPool();
+		Tween tween = pool.get();
+		pool.free(tween);
+		pool.clear();
+
+		pool.free(tween);
+		assertEquals("size", 0, pool.size());
+		assertEquals("frees", 1, pool.getStats().getFrees());
+	}
+
+	public static void testReleasedObjectsStayPooled() {
+		Pool<Tween> pool = createPool();
+		Tween tween = pool.get();
+		pool.free(tween);
+		pool.setRetention(0, 0, 0);
+		pool.setRetention(Integer.MAX_VALUE, 0, 0);
+
+		pool.free(tween);
+		assertEquals("size", 0, pool.size());
+		assertEquals("frees", 1, pool.getStats().getFrees());
+	}
+
+	// -------------------------------------------------------------------------
+	// Helpers
+	// -------------------------------------------------------------------------
+
+	private static Pool<Tween> createPool() {
+		return new Pool<Tween>(4, null) {
+			@Override protected Tween create() {
+				return Tween.call(null);
+			}
+		};
+	}
+}
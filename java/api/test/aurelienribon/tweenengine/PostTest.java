@@ -0,0 +1,45 @@
+package aurelienribon.tweenengine;
+
+import static aurelienribon.tweenengine.Assert.*;
+
+/**
+ * Checks the requests posted to a manager from other threads.
+ */
+public class PostTest {
+	public static void testPauseResumeKill() throws InterruptedException {
+		final TweenManager manager = new TweenManager();
+		final Tween tween = Tween.call(null).repeat(Tween.INFINITY, 1).start(manager);
+
+		runInThread(new Runnable() {@Override public void run() {manager.postPause(tween);}});
+		assertTrue("not paused before update", !tween.isPaused());
+		manager.update(0.1f);
+		assertTrue("paused", tween.isPaused());
+
+		runInThread(new Runnable() {@Override public void run() {manager.postResume(tween);}});
+		manager.update(0.1f);
+		assertTrue("resumed", !tween.isPaused());
+
+		runInThread(new Runnable() {@Override public void run() {manager.postKill(tween);}});
+		manager.update(0.1f);
+		manager.update(0.1f);
+		assertEquals("size", 0, manager.size());
+	}
+
+	public static void testRecycledObjectIgnored() {
+		TweenManager manager = new TweenManager();
+		Tween tween = Tween.call(null).repeat(Tween.INFINITY, 1).start(manager);
+		manager.postKill(tween);
+		tween.generation += 1; // as if it was freed and reused before the update
+
+		manager.update(0.1f);
+		manager.update(0.1f);
+		assertTrue("not killed", !tween.isFinished());
+		assertEquals("size", 1, manager.size());
+	}
+
+	private static void runInThread(Runnable runnable) throws InterruptedException {
+		Thread thread = new Thread(runnable);
+		thread.start();
+		thread.join();
+	}
+}
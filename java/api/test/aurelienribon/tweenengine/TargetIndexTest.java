@@ -0,0 +1,55 @@
+package aurelienribon.tweenengine;
+
+import static aurelienribon.tweenengine.Assert.*;
+
+/**
+ * Checks the lists of tweens sharing a target, when tweens are removed from
+ * the front, the middle and the back of a list.
+ */
+public class TargetIndexTest {
+	public static class Value {
+		public float value;
+	}
+
+	public static class ValueAccessor implements TweenAccessor<Value> {
+		@Override public int getValues(Value target, int tweenType, float[] returnValues) {
+			returnValues[0] = target.value;
+			return 1;
+		}
+
+		@Override public void setValues(Value target, int tweenType, float[] newValues) {
+			target.value = newValues[0];
+		}
+	}
+
+	public static void testRemovalsInAnyOrder() {
+		Tween.registerAccessor(Value.class, new ValueAccessor());
+		Value value = new Value();
+		TweenManager manager = new TweenManager();
+		Tween[] tweens = new Tween[5];
+		for (int i=0; i<tweens.length; i++) tweens[i] = Tween.to(value, i, 10).target(1).start(manager);
+
+		tweens[2].kill();
+		tweens[4].kill();
+		manager.update(0.1f);
+		assertTrue("middle removed", !manager.containsTarget(value, 2));
+		assertTrue("last removed", !manager.containsTarget(value, 4));
+		assertTrue("others kept", manager.containsTarget(value, 0) && manager.containsTarget(value, 1) && manager.containsTarget(value, 3));
+
+		// appended after the new last tween
+		Tween.to(value, 5, 10).target(1).start(manager);
+		tweens[0].kill();
+		tweens[3].kill();
+		manager.update(0.1f);
+		assertTrue("first removed", !manager.containsTarget(value, 0));
+		assertTrue("appended", manager.containsTarget(value, 5));
+
+		manager.killTarget(value);
+		manager.update(0.1f);
+		assertTrue("all removed", !manager.containsTarget(value));
+		assertEquals("size", 0, manager.size());
+
+		Tween.to(value, 6, 10).target(1).start(manager);
+		assertTrue("reindexed", manager.containsTarget(value, 6));
+	}
+}
@@ -0,0 +1,72 @@
+package aurelienribon.tweenengine;
+
+import java.io.File;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Runs the tests of the project. A test class is any class whose name ends
+ * with "Test", and each of its public static methods whose name starts with
+ * "test" is a test. A test fails if it throws anything. The runner exits
+ * with a non-zero status if any test failed.
+ * <p/>
+ *
+ * The arguments are either test class names, or a directory of compiled
+ * classes, in which case every test class found there is run.
+ */
+public class TestRunner {
+	public static void main(String[] args) throws Exception {
+		List<String> classNames = new ArrayList<String>();
+		for (String arg : args) {
+			File dir = new File(arg);
+			if (dir.isDirectory()) findTestClasses(dir, "", classNames);
+			else classNames.add(arg);
+		}
+		Collections.sort(classNames);
+
+		int testsCnt = 0;
+		int failuresCnt = 0;
+
+		for (String className : classNames) {
+			Class<?> clazz = Class.forName(className);
+			List<Method> methods = new ArrayList<Method>();
+			for (Method method : clazz.getMethods()) {
+				if (!method.getName().startsWith("test")) continue;
+				if (!Modifier.isStatic(method.getModifiers()) || method.getParameterTypes().length > 0) continue;
+				methods.add(method);
+			}
+
+			for (Method method : methods) {
+				testsCnt += 1;
+				try {
+					method.invoke(null);
+				} catch (InvocationTargetException ex) {
+					failuresCnt += 1;
+					System.out.println("FAILED " + clazz.getSimpleName() + "." + method.getName());
+					ex.getCause().printStackTrace(System.out);
+				}
+			}
+		}
+
+		System.out.println(testsCnt + " tests, " + failuresCnt + " failures");
+		if (failuresCnt > 0) System.exit(1);
+	}
+
+	private static void findTestClasses(File dir, String pkg, List<String> classNames) {
+		File[] files = dir.listFiles();
+		if (files == null) return;
+
+		for (File file : files) {
+			String name = file.getName();
+			if (file.isDirectory()) {
+				findTestClasses(file, pkg + name + ".", classNames);
+			} else if (name.endsWith("Test.class")) {
+				classNames.add(pkg + name.substring(0, name.length() - ".class".length()));
+			}
+		}
+	}
+}
@@ -0,0 +1,114 @@
+package aurelienribon.tweenengine;
+
+import static aurelienribon.tweenengine.Assert.*;
+import aurelienribon.tweenengine.equations.Cubic;
+import aurelienribon.tweenengine.equations.Linear;
+import aurelienribon.tweenengine.equations.Quad;
+import aurelienribon.tweenengine.equations.Sine;
+import java.util.Random;
+
+/**
+ * Checks that a TweenBatch produces exactly the values of the equivalent
+ * tweens, frame after frame, including at the iteration boundaries and when
+ * played backwards.
+ */
+public class TweenBatchTest {
+	private static final TweenEquation[] equations = {Linear.INOUT, Quad.INOUT, Cubic.OUT, Sine.IN};
+
+	public static class Point {
+		public float x, y;
+	}
+
+	public static class PointAccessor implements TweenAccessor<Point> {
+		@Override public int getValues(Point target, int tweenType, float[] returnValues) {
+			returnValues[0] = target.x;
+			returnValues[1] = target.y;
+			return 2;
+		}
+
+		@Override public void setValues(Point target, int tweenType, float[] newValues) {
+			target.x = newValues[0];
+			target.y = newValues[1];
+		}
+	}
+
+	public static void testIterationBoundaries() {
+		// exact boundaries: 0.5 + 0.75*k is reached by sums of 0.25
+		Random rand = new Random(1);
+		checkSameValues(rand, 0.75f, 0.5f, 2, 0, false, new float[] {0.25f});
+		checkSameValues(rand, 0.75f, 0.5f, 2, 0, false, new float[] {0.25f, 0.25f, -0.25f});
+		checkSameValues(rand, 0.75f, 0.5f, 2, 0.25f, true, new float[] {0.25f, -0.5f, 0.75f});
+		checkSameValues(rand, 0, 0.25f, 3, 0.25f, true, new float[] {0.25f, 0.25f, -0.25f});
+	}
+
+	public static void testRandomFrames() {
+		Random rand = new Random(2);
+		for (int i=0; i<300; i++) {
+			float duration = rand.nextInt(5) == 0 ? 0 : rand.nextInt(8) / 4f;
+			float delay = rand.nextInt(4) / 4f;
+			int repeatCnt = rand.nextInt(4);
+			float repeatDelay = rand.nextBoolean() ? 0 : rand.nextInt(3) / 4f;
+			float[] deltas = new float[1 + rand.nextInt(6)];
+			for (int j=0; j<deltas.length; j++) {
+				deltas[j] = rand.nextBoolean() ? rand.nextInt(5) / 8f : rand.nextFloat() / 2;
+				if (rand.nextInt(3) == 0) deltas[j] = -deltas[j];
+			}
+			checkSameValues(rand, duration, delay, repeatCnt, repeatDelay, rand.nextBoolean(), deltas);
+		}
+	}
+
+	public static void testTwoValuesOverloadsCheckAttributesCount() {
+		TweenBatch batch = new TweenBatch(2, 1);
+		int slot = batch.add(1);
+		assertTrue("from", throwsException(batch, slot, true));
+		assertTrue("target", throwsException(batch, slot, false));
+	}
+
+	// -------------------------------------------------------------------------
+	// Helpers
+	// -------------------------------------------------------------------------
+
+	private static void checkSameValues(Random rand, float duration, float delay, int repeatCnt, float repeatDelay, boolean isYoyo, float[] deltas) {
+		Tween.registerAccessor(Point.class, new PointAccessor());
+		TweenEquation equation = equations[rand.nextInt(equations.length)];
+		float x0 = rand.nextFloat() * 100, y0 = rand.nextFloat() * 100;
+		float x1 = rand.nextFloat() * 100, y1 = rand.nextFloat() * 100;
+
+		Point point = new Point();
+		point.x = x0;
+		point.y = y0;
+		Tween tween = Tween.to(point, 0, duration).target(x1, y1).ease(equation).delay(delay);
+		if (isYoyo) tween.repeatYoyo(repeatCnt, repeatDelay);
+		else tween.repeat(repeatCnt, repeatDelay);
+		tween.start();
+
+		TweenBatch batch = new TweenBatch(2, 2);
+		batch.add(1); // a second slot, to check the runs of slots
+		int slot = batch.add(duration);
+		batch.from(slot, x0, y0).target(slot, x1, y1).ease(slot, equation).delay(slot, delay);
+		if (isYoyo) batch.repeatYoyo(slot, repeatCnt, repeatDelay);
+		else batch.repeat(slot, repeatCnt, repeatDelay);
+
+		String params = "duration " + duration + ", delay " + delay + ", repeat " + repeatCnt + "/" + repeatDelay + (isYoyo ? " yoyo" : "");
+		for (int i=0; i<200; i++) {
+			float delta = deltas[i % deltas.length];
+			tween.update(delta);
+			batch.update(delta);
+			assertEquals(params + ", x at frame " + i, point.x, batch.getValues()[slot*2]);
+			assertEquals(params + ", y at frame " + i, point.y, batch.getValues()[slot*2+1]);
+			assertTrue(params + ", finished at frame " + i, tween.isFinished() == batch.isFinished(slot));
+		}
+
+		tween.free();
+	}
+
+	private static boolean throwsException(TweenBatch batch, int slot, boolean isFrom) {
+		try {
+			if (isFrom) batch.from(slot, 1, 2);
+			else batch.target(slot, 1, 2);
+			return false;
+		} catch (RuntimeException ex) {
+			return true;
+		}
+	}
+}
@@ -0,0 +1,91 @@
+package aurelienribon.tweenengine;
+
+import static aurelienribon.tweenengine.Assert.*;
+import java.lang.reflect.Field;
+
+/**
+ * Checks the sizes of the value arrays kept by the pooled tweens.
+ */
+public class TweenValuesTest {
+	public static class Values {
+		public final float[] values;
+
+		public Values(int length) {
+			values = new float[length];
+		}
+	}
+
+	public static class ValuesAccessor implements TweenAccessor<Values> {
+		@Override public int getValues(Values target, int tweenType, float[] returnValues) {
+			System.arraycopy(target.values, 0, returnValues, 0, target.values.length);
+			return target.values.length;
+		}
+
+		@Override public void setValues(Values target, int tweenType, float[] newValues) {
+			System.arraycopy(newValues, 0, target.values, 0, target.values.length);
+		}
+	}
+
+	public static void testSmallArraysAreKept() throws Exception {
+		Tween.registerAccessor(Values.class, new ValuesAccessor());
+		Tween tween = Tween.to(new Values(2), 0, 1).target(1, 2).waypoint(3, 4).start();
+		tween.update(0.5f);
+		float[] startValues = getArray(tween, "startValues");
+		tween.free();
+
+		assertSame("start values", startValues, getArray(tween, "startValues"));
+	}
+
+	public static void testArraysUpToTheLimitAreKept() throws Exception {
+		Tween.registerAccessor(Values.class, new ValuesAccessor());
+		Tween.setCombinedAttributesLimit(8);
+		Tween tween = createLargeTween(8);
+		float[][] arrays = new float[ARRAY_NAMES.length][];
+		for (int i=0; i<ARRAY_NAMES.length; i++) arrays[i] = getArray(tween, ARRAY_NAMES[i]);
+		assertEquals("start values", 8, arrays[0].length);
+		tween.free();
+
+		for (int i=0; i<ARRAY_NAMES.length; i++) {
+			assertSame(ARRAY_NAMES[i], arrays[i], getArray(tween, ARRAY_NAMES[i]));
+		}
+		Tween.setCombinedAttributesLimit(3);
+	}
+
+	public static void testLargeArraysAreReleased() throws Exception {
+		Tween.registerAccessor(Values.class, new ValuesAccessor());
+		Tween.setCombinedAttributesLimit(16);
+		Tween tween = createLargeTween(16);
+		assertEquals("start values", 16, getArray(tween, "startValues").length);
+		tween.free();
+
+		// the limit was lowered, the next reset drops the arrays above it
+		Tween.setCombinedAttributesLimit(3);
+		tween.reset();
+		for (String name : new String[] {"startValues", "targetValues", "accessorBuffer"}) {
+			assertTrue(name, getArray(tween, name).length <= 4);
+		}
+		for (String name : new String[] {"waypoints", "pathBuffer"}) {
+			assertTrue(name, getArray(tween, name).length <= 16);
+		}
+	}
+
+	// -------------------------------------------------------------------------
+	// Helpers
+	// -------------------------------------------------------------------------
+
+	private static final String[] ARRAY_NAMES = {"startValues", "targetValues", "accessorBuffer", "waypoints", "pathBuffer"};
+
+	private static Tween createLargeTween(int attrsCnt) {
+		float[] targetValues = new float[attrsCnt];
+		Tween tween = Tween.to(new Values(attrsCnt), 0, 1).target(targetValues);
+		for (int i=0; i<4; i++) tween.waypoint(targetValues);
+		tween.start().update(0.5f);
+		return tween;
+	}
+
+	private static float[] getArray(Tween tween, String name) throws Exception {
+		Field field = Tween.class.getDeclaredField(name);
+		field.setAccessible(true);
+		return (float[]) field.get(tween);
+	}
+}
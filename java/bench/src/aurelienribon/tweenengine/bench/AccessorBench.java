@@ -0,0 +1,115 @@
+package aurelienribon.tweenengine.bench;
+
+import aurelienribon.tweenengine.TweenAccessor;
+import aurelienribon.tweenengine.invoke.ReflectiveAccessors;
+import java.lang.reflect.Field;
+
+/**
+ * Measures the cost of reading and writing the fields of many targets
+ * through a hand-written accessor, an accessor built by ReflectiveAccessors,
+ * and an accessor based on the classic reflection. Every accessor is called
+ * from the same loop, which is first warmed up with all of them in turn, so
+ * that its call site is megamorphic, as the one of Tween is.
+ */
+public class AccessorBench {
+	private static final int TARGETS_CNT = 1024;
+	private static final int PASSES_CNT = 1000;
+
+	public static class Particle {
+		public float x, y, z;
+	}
+
+	public static class ParticleAccessor implements TweenAccessor<Particle> {
+		@Override public int getValues(Particle target, int tweenType, float[] returnValues) {
+			returnValues[0] = target.x;
+			returnValues[1] = target.y;
+			returnValues[2] = target.z;
+			return 3;
+		}
+
+		@Override public void setValues(Particle target, int tweenType, float[] newValues) {
+			target.x = newValues[0];
+			target.y = newValues[1];
+			target.z = newValues[2];
+		}
+	}
+
+	public static class FieldAccessor implements TweenAccessor<Particle> {
+		private final Field[] fields;
+
+		public FieldAccessor(String... names) {
+			try {
+				fields = new Field[names.length];
+				for (int i=0; i<names.length; i++) fields[i] = Particle.class.getField(names[i]);
+			} catch (NoSuchFieldException ex) {
+				throw new RuntimeException(ex);
+			}
+		}
+
+		@Override public int getValues(Particle target, int tweenType, float[] returnValues) {
+			try {
+				for (int i=0; i<fields.length; i++) returnValues[i] = fields[i].getFloat(target);
+				return fields.length;
+			} catch (IllegalAccessException ex) {
+				throw new RuntimeException(ex);
+			}
+		}
+
+		@Override public void setValues(Particle target, int tweenType, float[] newValues) {
+			try {
+				for (int i=0; i<fields.length; i++) fields[i].setFloat(target, newValues[i]);
+			} catch (IllegalAccessException ex) {
+				throw new RuntimeException(ex);
+			}
+		}
+	}
+
+	public static void main(String[] args) {
+		Particle[] targets = new Particle[TARGETS_CNT];
+		for (int i=0; i<TARGETS_CNT; i++) targets[i] = new Particle();
+
+		TweenAccessor<Particle> handWritten = new ParticleAccessor();
+		TweenAccessor<Particle> reflective = ReflectiveAccessors.forFields(Particle.class, "x", "y", "z");
+		TweenAccessor<Particle> reflection = new FieldAccessor("x", "y", "z");
+
+		TweenAccessor<?>[] accessors = {handWritten, reflective, reflection};
+		for (int i=0; i<3000; i++) update(accessors, i, targets);
+
+		String params = String.format("%d targets x %d", TARGETS_CNT, PASSES_CNT);
+		Bench.report("hand-written", params, measure(handWritten, targets));
+		Bench.report("ReflectiveAccessors", params, measure(reflective, targets));
+		Bench.report("java.lang.reflect", params, measure(reflection, targets));
+	}
+
+	private static double measure(final TweenAccessor<Particle> accessor, final Particle[] targets) {
+		return Bench.measure(new Bench.Task() {
+			@Override public void run(Bench.Timer timer) {
+				timer.start();
+				Bench.consume(update(accessor, targets));
+				timer.stop();
+			}
+		}, 3, 7);
+	}
+
+	private static float[] update(TweenAccessor<Particle> accessor, Particle[] targets) {
+		TweenAccessor<?>[] accessors = {accessor};
+		float[] values = null;
+		for (int pass=0; pass<PASSES_CNT; pass++) values = update(accessors, 0, targets);
+		return values;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static float[] update(TweenAccessor<?>[] accessors, int first, Particle[] targets) {
+		float[] values = new float[3];
+		for (int i=0; i<targets.length; i++) {
+			TweenAccessor<Particle> accessor = (TweenAccessor<Particle>) accessors[(first + i) % accessors.length];
+			Particle target = targets[i];
+			accessor.getValues(target, ReflectiveAccessors.ALL_FIELDS, values);
+			values[0] += 1;
+			values[1] += 2;
+			values[2] += 3;
+			accessor.setValues(target, ReflectiveAccessors.ALL_FIELDS, values);
+		}
+		return values;
+	}
+}
@@ -0,0 +1,65 @@
+package aurelienribon.tweenengine.bench;
+
+import java.util.Arrays;
+
+/**
+ * Minimal timing helpers shared by the benchmarks. Each benchmark is a plain
+ * main class: a task is run a few times to let the JIT compile it, then timed
+ * over several runs, and the median time is reported. This is not as
+ * rigorous as a JMH harness, but it keeps the project free of dependencies,
+ * and is enough to compare two implementations on the same machine.
+ */
+public class Bench {
+	public interface Task {
+		/**
+		 * Runs one iteration. Only the time spent between the calls to
+		 * {@link Timer#start()} and {@link Timer#stop()} is measured, so the
+		 * setup can be done out of the measure.
+		 */
+		public void run(Timer timer);
+	}
+
+	public static class Timer {
+		private long startTime;
+		private long elapsed;
+
+		public void start() {
+			startTime = System.nanoTime();
+		}
+
+		public void stop() {
+			elapsed += System.nanoTime() - startTime;
+		}
+	}
+
+	private static volatile Object sink;
+
+	/**
+	 * Runs the task warmupsCnt times, then measures it runsCnt times, and
+	 * returns the median time of a run, in milliseconds.
+	 */
+	public static double measure(Task task, int warmupsCnt, int runsCnt) {
+		for (int i=0; i<warmupsCnt; i++) task.run(new Timer());
+
+		double[] times = new double[runsCnt];
+		for (int i=0; i<runsCnt; i++) {
+			Timer timer = new Timer();
+			task.run(timer);
+			times[i] = timer.elapsed / 1e6;
+		}
+
+		Arrays.sort(times);
+		return times[runsCnt/2];
+	}
+
+	/**
+	 * Keeps a value alive, so that the JIT can't remove the code computing it.
+	 */
+	public static void consume(Object obj) {
+		sink = obj;
+	}
+
+	public static void report(String name, String params, double ms) {
+		System.out.println(String.format("%-28s %-24s %10.3f ms", name, params, ms));
+	}
+}
@@ -0,0 +1,90 @@
+package aurelienribon.tweenengine.bench;
+
+import aurelienribon.tweenengine.ConcurrentPools;
+import aurelienribon.tweenengine.Tween;
+import aurelienribon.tweenengine.TweenManager;
+
+/**
+ * Measures several threads taking tweens from the pool and freeing them,
+ * while the main thread updates a manager, which ticks the trimming of the
+ * pool at each update. The default pool behind a lock is measured first,
+ * then the concurrent pools are installed and measured with the same
+ * threads. The cost of the manager updates alone, mostly made of the ticks
+ * of the pools, is measured last.
+ */
+public class ConcurrentPoolBench {
+	private static final int ROUNDS_PER_PRODUCER = 20000;
+	private static final int TWEENS_PER_ROUND = 64;
+	private static final int UPDATES_CNT = 1000000;
+
+	public static void main(String[] args) {
+		Tween.setPoolTrimming(600, 0.1f);
+		int[] producersCnts = {1, 2, 4, 8, 16};
+
+		for (int p : producersCnts) report("synchronized pool", p, measure(p, true));
+		ConcurrentPools.install();
+		Tween.setPoolTrimming(600, 0.1f);
+		for (int p : producersCnts) report("concurrent pools", p, measure(p, false));
+
+		final TweenManager manager = new TweenManager();
+		double ms = Bench.measure(new Bench.Task() {
+			@Override public void run(Bench.Timer timer) {
+				timer.start();
+				for (int i=0; i<UPDATES_CNT; i++) manager.update(0.016f);
+				timer.stop();
+			}
+		}, 3, 7);
+		Bench.report("empty updates", String.format("n=%d (%.1f ns/update)", UPDATES_CNT, ms * 1e6 / UPDATES_CNT), ms);
+	}
+
+	private static void report(String name, int producersCnt, double ms) {
+		double throughput = (double) producersCnt * ROUNDS_PER_PRODUCER * TWEENS_PER_ROUND / ms / 1000;
+		Bench.report(name, String.format("producers=%d (%.1f M/s)", producersCnt, throughput), ms);
+	}
+
+	private static double measure(final int producersCnt, final boolean isSynchronized) {
+		return Bench.measure(new Bench.Task() {
+			@Override public void run(Bench.Timer timer) {
+				final TweenManager manager = new TweenManager();
+				final Object lock = new Object();
+				Thread[] producers = new Thread[producersCnt];
+
+				for (int i=0; i<producersCnt; i++) {
+					producers[i] = new Thread(new Runnable() {
+						@Override public void run() {
+							Tween[] tweens = new Tween[TWEENS_PER_ROUND];
+							for (int round=0; round<ROUNDS_PER_PRODUCER; round++) {
+								if (isSynchronized) {
+									for (int j=0; j<tweens.length; j++) synchronized (lock) {tweens[j] = Tween.call(null);}
+									for (int j=0; j<tweens.length; j++) synchronized (lock) {tweens[j].free();}
+								} else {
+									for (int j=0; j<tweens.length; j++) tweens[j] = Tween.call(null);
+									for (int j=0; j<tweens.length; j++) tweens[j].free();
+								}
+							}
+						}
+					});
+				}
+
+				timer.start();
+				for (Thread producer : producers) producer.start();
+
+				while (isAlive(producers)) {
+					if (isSynchronized) {
+						synchronized (lock) {manager.update(0.016f);}
+					} else {
+						manager.update(0.016f);
+					}
+					Thread.yield();
+				}
+
+				timer.stop();
+			}
+		}, 3, 7);
+	}
+
+	private static boolean isAlive(Thread[] threads) {
+		for (Thread thread : threads) if (thread.isAlive()) return true;
+		return false;
+	}
+}
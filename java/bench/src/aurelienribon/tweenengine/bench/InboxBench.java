@@ -0,0 +1,78 @@
+package aurelienribon.tweenengine.bench;
+
+import aurelienribon.tweenengine.Tween;
+import aurelienribon.tweenengine.TweenManager;
+
+/**
+ * Measures the throughput of several threads sending tweens to a manager
+ * while it is being updated, with the lock-free inbox of the manager, and
+ * with a synchronized wrapper around add() and update(). The tweens are
+ * created before the measure, so that only the submission is timed.
+ */
+public class InboxBench {
+	private static final int TWEENS_PER_PRODUCER = 100000;
+
+	public static void main(String[] args) {
+		for (int p : new int[] {1, 2, 4, 8}) {
+			Tween.ensurePoolCapacity(p * TWEENS_PER_PRODUCER);
+			report("inbox", p, measure(p, false));
+			report("synchronized", p, measure(p, true));
+		}
+	}
+
+	private static void report(String name, int producersCnt, double ms) {
+		double throughput = producersCnt * TWEENS_PER_PRODUCER / ms / 1000;
+		Bench.report(name, String.format("producers=%d (%.2f M/s)", producersCnt, throughput), ms);
+	}
+
+	private static double measure(final int producersCnt, final boolean isSynchronized) {
+		return Bench.measure(new Bench.Task() {
+			@Override public void run(Bench.Timer timer) {
+				final TweenManager manager = new TweenManager();
+				final Object lock = new Object();
+				Thread[] producers = new Thread[producersCnt];
+
+				for (int i=0; i<producersCnt; i++) {
+					final Tween[] tweens = new Tween[TWEENS_PER_PRODUCER];
+					for (int j=0; j<tweens.length; j++) tweens[j] = Tween.call(null).repeat(Tween.INFINITY, 1);
+
+					producers[i] = new Thread(new Runnable() {
+						@Override public void run() {
+							if (isSynchronized) {
+								for (Tween tween : tweens) synchronized (lock) {manager.add(tween);}
+							} else {
+								for (Tween tween : tweens) manager.post(tween);
+							}
+						}
+					});
+				}
+
+				int total = producersCnt * TWEENS_PER_PRODUCER;
+				timer.start();
+				for (Thread producer : producers) producer.start();
+
+				while (true) {
+					int size;
+					synchronized (lock) {
+						manager.update(0.016f);
+						size = manager.size();
+					}
+					if (size == total) break;
+				}
+
+				timer.stop();
+				join(producers);
+				manager.killAll();
+				manager.update(0.016f);
+			}
+		}, 3, 7);
+	}
+
+	private static void join(Thread[] threads) {
+		try {
+			for (Thread thread : threads) thread.join();
+		} catch (InterruptedException ex) {
+			throw new RuntimeException(ex);
+		}
+	}
+}
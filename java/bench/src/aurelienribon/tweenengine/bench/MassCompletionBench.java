@@ -0,0 +1,79 @@
+package aurelienribon.tweenengine.bench;
+
+import aurelienribon.tweenengine.BaseTween;
+import aurelienribon.tweenengine.Tween;
+import aurelienribon.tweenengine.TweenAccessor;
+import aurelienribon.tweenengine.TweenCallback;
+import aurelienribon.tweenengine.TweenManager;
+
+/**
+ * Measures the frame during which a wave of n tweens is removed from a
+ * manager, all of them having completed during the previous frame, while n
+ * other tweens, added after them, keep running. The removal should be linear
+ * in n: removing the objects one by one shifts the running ones each time.
+ * The second case makes all the tweens share a single target, so that the
+ * removal also unlinks them from one long list of the target index.
+ */
+public class MassCompletionBench {
+	private static final TweenCallback callback = new TweenCallback() {
+		@Override public void onEvent(int type, BaseTween<?> source) {}
+	};
+
+	public static class Value {
+		public float value;
+	}
+
+	public static class ValueAccessor implements TweenAccessor<Value> {
+		@Override public int getValues(Value target, int tweenType, float[] returnValues) {
+			returnValues[0] = target.value;
+			return 1;
+		}
+
+		@Override public void setValues(Value target, int tweenType, float[] newValues) {
+			target.value = newValues[0];
+		}
+	}
+
+	public static void main(String[] args) {
+		Tween.registerAccessor(Value.class, new ValueAccessor());
+
+		for (final int n : new int[] {1000, 10000, 50000}) {
+			Tween.ensurePoolCapacity(2*n);
+			Bench.report("mass completion", "n=" + n, measure(n, null));
+			Bench.report("mass completion", "n=" + n + ", one target", measure(n, new Value()));
+		}
+	}
+
+	/**
+	 * Measures the removal of n tweens, animating the given target if it is
+	 * not null, or calling a callback otherwise.
+	 */
+	private static double measure(final int n, final Value target) {
+		return Bench.measure(new Bench.Task() {
+			@Override public void run(Bench.Timer timer) {
+				TweenManager manager = new TweenManager();
+				for (int i=0; i<n; i++) createFinishing(target).start(manager);
+				for (int i=0; i<n; i++) createRunning(target).start(manager);
+				manager.update(0.016f);
+
+				timer.start();
+				manager.update(0.016f);
+				timer.stop();
+
+				if (manager.size() != n) throw new RuntimeException("Objects were not removed");
+				manager.killAll();
+				manager.update(0.016f);
+			}
+		}, 5, 11);
+	}
+
+	private static Tween createFinishing(Value target) {
+		if (target == null) return Tween.call(callback);
+		return Tween.to(target, 0, 0.001f).target(1);
+	}
+
+	private static Tween createRunning(Value target) {
+		if (target == null) return Tween.call(callback).repeat(Tween.INFINITY, 10);
+		return Tween.to(target, 0, 10).target(1).repeat(Tween.INFINITY, 0);
+	}
+}
@@ -0,0 +1,66 @@
+package aurelienribon.tweenengine.bench;
+
+import aurelienribon.tweenengine.ParallelTweenManager;
+import aurelienribon.tweenengine.Tween;
+import aurelienribon.tweenengine.TweenAccessor;
+import aurelienribon.tweenengine.TweenManager;
+import aurelienribon.tweenengine.equations.Quad;
+
+/**
+ * Measures a frame of n running tweens, each one animating its own target,
+ * with a sequential manager and with a parallel manager using 1 to N
+ * threads, N being at least 4, or the number of available processors.
+ */
+public class ParallelScalingBench {
+	public static class Particle {
+		public float x, y;
+	}
+
+	public static class ParticleAccessor implements TweenAccessor<Particle> {
+		@Override public int getValues(Particle target, int tweenType, float[] returnValues) {
+			returnValues[0] = target.x;
+			returnValues[1] = target.y;
+			return 2;
+		}
+
+		@Override public void setValues(Particle target, int tweenType, float[] newValues) {
+			target.x = newValues[0];
+			target.y = newValues[1];
+		}
+	}
+
+	public static void main(String[] args) {
+		Tween.registerAccessor(Particle.class, new ParticleAccessor());
+		int maxParallelism = Math.max(4, Runtime.getRuntime().availableProcessors());
+		System.out.println("available processors: " + Runtime.getRuntime().availableProcessors());
+
+		for (int n : new int[] {10000, 100000, 1000000}) {
+			Tween.ensurePoolCapacity(n);
+			Bench.report("sequential", "n=" + n, measure(new TweenManager(), n));
+
+			for (int p=1; p<=maxParallelism; p*=2) {
+				ParallelTweenManager manager = new ParallelTweenManager(p);
+				Bench.report("parallel", "n=" + n + " threads=" + p, measure(manager, n));
+				manager.dispose();
+			}
+		}
+	}
+
+	private static double measure(final TweenManager manager, int n) {
+		for (int i=0; i<n; i++) {
+			Tween.to(new Particle(), 0, 1).target(100, 100).ease(Quad.INOUT).repeatYoyo(Tween.INFINITY, 0).start(manager);
+		}
+
+		double ms = Bench.measure(new Bench.Task() {
+			@Override public void run(Bench.Timer timer) {
+				timer.start();
+				manager.update(0.016f);
+				timer.stop();
+			}
+		}, 20, 31);
+
+		manager.killAll();
+		manager.update(0.016f);
+		return ms;
+	}
+}
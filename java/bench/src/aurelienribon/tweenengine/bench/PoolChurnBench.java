@@ -0,0 +1,37 @@
+package aurelienribon.tweenengine.bench;
+
+import aurelienribon.tweenengine.Tween;
+
+/**
+ * Measures a churn of the tween pool: n tweens are taken from a pool holding
+ * at least n objects, then all of them are freed. Both get() and free()
+ * should be constant time, so the time per tween should not depend on n. The
+ * small sizes are warmed up longer, so that they are measured once compiled.
+ * The sizes can be given as arguments, the default ones are 1k, 100k and 1M.
+ */
+public class PoolChurnBench {
+	public static void main(String[] args) {
+		int[] sizes = {1000, 100000, 1000000};
+		if (args.length > 0) {
+			sizes = new int[args.length];
+			for (int i=0; i<args.length; i++) sizes[i] = Integer.parseInt(args[i]);
+		}
+
+		for (final int n : sizes) {
+			Tween.ensurePoolCapacity(n);
+			final Tween[] tweens = new Tween[n];
+			int warmupsCnt = Math.max(1000000 / n, 10);
+
+			double ms = Bench.measure(new Bench.Task() {
+				@Override public void run(Bench.Timer timer) {
+					timer.start();
+					for (int i=0; i<n; i++) tweens[i] = Tween.call(null);
+					for (int i=0; i<n; i++) tweens[i].free();
+					timer.stop();
+				}
+			}, warmupsCnt, 11);
+
+			Bench.report("pool churn", String.format("n=%d (%.1f ns/tween)", n, ms * 1e6 / n), ms);
+		}
+	}
+}
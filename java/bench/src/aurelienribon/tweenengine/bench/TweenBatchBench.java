@@ -0,0 +1,108 @@
+package aurelienribon.tweenengine.bench;
+
+import aurelienribon.tweenengine.Tween;
+import aurelienribon.tweenengine.TweenAccessor;
+import aurelienribon.tweenengine.TweenBatch;
+import aurelienribon.tweenengine.TweenManager;
+import aurelienribon.tweenengine.equations.Quad;
+
+/**
+ * Measures a frame of n running interpolations of two values, made by a
+ * TweenBatch and by a TweenManager running the same n tweens: same duration,
+ * easing, delays and yoyo repetitions. The batch is measured alone, then
+ * with its values copied back to the animated objects, which is what the
+ * tweens of the manager do through their accessor. The small sizes are
+ * warmed up longer, so that they are measured once compiled. The sizes can
+ * be given as arguments, the default ones are 10k and 100k.
+ */
+public class TweenBatchBench {
+	public static class Particle {
+		public float x, y;
+	}
+
+	public static class ParticleAccessor implements TweenAccessor<Particle> {
+		@Override public int getValues(Particle target, int tweenType, float[] returnValues) {
+			returnValues[0] = target.x;
+			returnValues[1] = target.y;
+			return 2;
+		}
+
+		@Override public void setValues(Particle target, int tweenType, float[] newValues) {
+			target.x = newValues[0];
+			target.y = newValues[1];
+		}
+	}
+
+	public static void main(String[] args) {
+		Tween.registerAccessor(Particle.class, new ParticleAccessor());
+		int[] sizes = {10000, 100000};
+		if (args.length > 0) {
+			sizes = new int[args.length];
+			for (int i=0; i<args.length; i++) sizes[i] = Integer.parseInt(args[i]);
+		}
+
+		for (int n : sizes) {
+			Tween.ensurePoolCapacity(n);
+			Bench.report("manager", "n=" + n, measureManager(n));
+			Bench.report("batch", "n=" + n, measureBatch(n, false));
+			Bench.report("batch, copied to objects", "n=" + n, measureBatch(n, true));
+		}
+	}
+
+	private static int getWarmupsCount(int n) {
+		return Math.max(10000000 / n, 20);
+	}
+
+	private static float getDelay(int i) {
+		return (i % 8) * 0.01f;
+	}
+
+	private static double measureManager(int n) {
+		final TweenManager manager = new TweenManager();
+		for (int i=0; i<n; i++) {
+			Tween.to(new Particle(), 0, 1).target(100, 200).ease(Quad.INOUT)
+				.delay(getDelay(i)).repeatYoyo(Tween.INFINITY, 0.1f).start(manager);
+		}
+
+		double ms = Bench.measure(new Bench.Task() {
+			@Override public void run(Bench.Timer timer) {
+				timer.start();
+				manager.update(0.016f);
+				timer.stop();
+			}
+		}, getWarmupsCount(n), 31);
+
+		manager.killAll();
+		manager.update(0.016f);
+		return ms;
+	}
+
+	private static double measureBatch(int n, final boolean isCopied) {
+		final TweenBatch batch = new TweenBatch(n, 2);
+		final Particle[] particles = new Particle[n];
+		for (int i=0; i<n; i++) {
+			int slot = batch.add(1);
+			batch.from(slot, 0, 0).target(slot, 100, 200).ease(slot, Quad.INOUT)
+				.delay(slot, getDelay(i)).repeatYoyo(slot, Tween.INFINITY, 0.1f);
+			particles[slot] = new Particle();
+		}
+
+		double ms = Bench.measure(new Bench.Task() {
+			@Override public void run(Bench.Timer timer) {
+				timer.start();
+				batch.update(0.016f);
+				if (isCopied) {
+					float[] values = batch.getValues();
+					for (int i=0; i<particles.length; i++) {
+						particles[i].x = values[i*2];
+						particles[i].y = values[i*2+1];
+					}
+				}
+				timer.stop();
+			}
+		}, getWarmupsCount(n), 31);
+
+		Bench.consume(particles);
+		return ms;
+	}
+}
@@ -0,0 +1,100 @@
+package aurelienribon.tweenengine.invoke;
+
+import aurelienribon.tweenengine.TweenAccessor;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+
+/**
+ * The template of the accessors built by {@link ReflectiveAccessors}. This
+ * class is never loaded as is: its bytes are defined again as a new hidden
+ * class for each accessor, with the handles of the accessor as class data.
+ * Since the handles are static final fields of their own class, the JIT
+ * treats them as constants and inlines the field accesses behind them, as
+ * in a hand-written accessor.
+ * <p/>
+ *
+ * The getters are (Object)float handles and the setters (Object,float)void
+ * handles, already converting the values from and to the type of their
+ * fields. The unused handles throw an exception.
+ *
+ * @author Aurelien Ribon | http://www.aurelienribon.com/
+ */
+final class AccessorTemplate implements TweenAccessor<Object> {
+	static final int MAX_FIELDS = 8;
+
+	private static final int FIELDS_CNT = ReflectiveAccessors.getFieldsCount(MethodHandles.lookup());
+	private static final MethodHandle GET0 = ReflectiveAccessors.getHandle(MethodHandles.lookup(), 0);
+	private static final MethodHandle GET1 = ReflectiveAccessors.getHandle(MethodHandles.lookup(), 1);
+	private static final MethodHandle GET2 = ReflectiveAccessors.getHandle(MethodHandles.lookup(), 2);
+	private static final MethodHandle GET3 = ReflectiveAccessors.getHandle(MethodHandles.lookup(), 3);
+	private static final MethodHandle GET4 = ReflectiveAccessors.getHandle(MethodHandles.lookup(), 4);
+	private static final MethodHandle GET5 = ReflectiveAccessors.getHandle(MethodHandles.lookup(), 5);
+	private static final MethodHandle GET6 = ReflectiveAccessors.getHandle(MethodHandles.lookup(), 6);
+	private static final MethodHandle GET7 = ReflectiveAccessors.getHandle(MethodHandles.lookup(), 7);
+	private static final MethodHandle SET0 = ReflectiveAccessors.getHandle(MethodHandles.lookup(), MAX_FIELDS + 0);
+	private static final MethodHandle SET1 = ReflectiveAccessors.getHandle(MethodHandles.lookup(), MAX_FIELDS + 1);
+	private static final MethodHandle SET2 = ReflectiveAccessors.getHandle(MethodHandles.lookup(), MAX_FIELDS + 2);
+	private static final MethodHandle SET3 = ReflectiveAccessors.getHandle(MethodHandles.lookup(), MAX_FIELDS + 3);
+	private static final MethodHandle SET4 = ReflectiveAccessors.getHandle(MethodHandles.lookup(), MAX_FIELDS + 4);
+	private static final MethodHandle SET5 = ReflectiveAccessors.getHandle(MethodHandles.lookup(), MAX_FIELDS + 5);
+	private static final MethodHandle SET6 = ReflectiveAccessors.getHandle(MethodHandles.lookup(), MAX_FIELDS + 6);
+	private static final MethodHandle SET7 = ReflectiveAccessors.getHandle(MethodHandles.lookup(), MAX_FIELDS + 7);
+
+	@Override
+	public int getValues(Object target, int tweenType, float[] returnValues) {
+		try {
+			switch (tweenType) {
+				case ReflectiveAccessors.ALL_FIELDS:
+					returnValues[0] = (float) GET0.invokeExact(target);
+					if (FIELDS_CNT > 1) returnValues[1] = (float) GET1.invokeExact(target);
+					if (FIELDS_CNT > 2) returnValues[2] = (float) GET2.invokeExact(target);
+					if (FIELDS_CNT > 3) returnValues[3] = (float) GET3.invokeExact(target);
+					if (FIELDS_CNT > 4) returnValues[4] = (float) GET4.invokeExact(target);
+					if (FIELDS_CNT > 5) returnValues[5] = (float) GET5.invokeExact(target);
+					if (FIELDS_CNT > 6) returnValues[6] = (float) GET6.invokeExact(target);
+					if (FIELDS_CNT > 7) returnValues[7] = (float) GET7.invokeExact(target);
+					return FIELDS_CNT;
+				case 1: returnValues[0] = (float) GET0.invokeExact(target); return 1;
+				case 2: returnValues[0] = (float) GET1.invokeExact(target); return 1;
+				case 3: returnValues[0] = (float) GET2.invokeExact(target); return 1;
+				case 4: returnValues[0] = (float) GET3.invokeExact(target); return 1;
+				case 5: returnValues[0] = (float) GET4.invokeExact(target); return 1;
+				case 6: returnValues[0] = (float) GET5.invokeExact(target); return 1;
+				case 7: returnValues[0] = (float) GET6.invokeExact(target); return 1;
+				case 8: returnValues[0] = (float) GET7.invokeExact(target); return 1;
+				default: throw ReflectiveAccessors.noField(tweenType);
+			}
+		} catch (Throwable ex) {
+			throw ReflectiveAccessors.rethrow(ex);
+		}
+	}
+
+	@Override
+	public void setValues(Object target, int tweenType, float[] newValues) {
+		try {
+			switch (tweenType) {
+				case ReflectiveAccessors.ALL_FIELDS:
+					SET0.invokeExact(target, newValues[0]);
+					if (FIELDS_CNT > 1) SET1.invokeExact(target, newValues[1]);
+					if (FIELDS_CNT > 2) SET2.invokeExact(target, newValues[2]);
+					if (FIELDS_CNT > 3) SET3.invokeExact(target, newValues[3]);
+					if (FIELDS_CNT > 4) SET4.invokeExact(target, newValues[4]);
+					if (FIELDS_CNT > 5) SET5.invokeExact(target, newValues[5]);
+					if (FIELDS_CNT > 6) SET6.invokeExact(target, newValues[6]);
+					if (FIELDS_CNT > 7) SET7.invokeExact(target, newValues[7]);
+					break;
+				case 1: SET0.invokeExact(target, newValues[0]); break;
+				case 2: SET1.invokeExact(target, newValues[0]); break;
+				case 3: SET2.invokeExact(target, newValues[0]); break;
+				case 4: SET3.invokeExact(target, newValues[0]); break;
+				case 5: SET4.invokeExact(target, newValues[0]); break;
+				case 6: SET5.invokeExact(target, newValues[0]); break;
+				case 7: SET6.invokeExact(target, newValues[0]); break;
+				case 8: SET7.invokeExact(target, newValues[0]); break;
+				default: throw ReflectiveAccessors.noField(tweenType);
+			}
+		} catch (Throwable ex) {
+			throw ReflectiveAccessors.rethrow(ex);
+		}
+	}
+}
@@ -0,0 +1,282 @@
+package aurelienribon.tweenengine.invoke;
+
+import aurelienribon.tweenengine.TweenAccessor;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.constant.ConstantDescs;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Builds TweenAccessors from the fields of a class, so that you don't have
+ * to write them by hand (Java 16+). Each accessor is a class of its own,
+ * defined at runtime as a hidden class, which reads and writes the fields
+ * through static final method handles. The JIT compiles them to plain field
+ * accesses, so the accessor is as fast as a hand-written one, without the
+ * boxing and the access checks of the classic reflection. Classes with more
+ * than 8 tweened fields use a slower, shared accessor based on VarHandles.
+ * <p/>
+ *
+ * <pre> {@code
+ * Tween.registerAccessor(Particle.class, ReflectiveAccessors.forFields(Particle.class, "x", "y"));
+ * Tween.to(particle, 0, 1.0f).target(100, 200).start(manager); // x and y
+ * Tween.to(particle, 2, 1.0f).target(200).start(manager); // y only
+ * }</pre>
+ *
+ * The tween type 0 interpolates every given field, in order, and the tween
+ * type i (starting at 1) only interpolates the i-th field. The fields can
+ * be float, double, int or long ones. Integer fields are rounded.
+ *
+ * @see TweenAccessor
+ * @author Aurelien Ribon | http://www.aurelienribon.com/
+ */
+public class ReflectiveAccessors {
+	public static final int ALL_FIELDS = 0;
+
+	private static final int FLOAT = 0;
+	private static final int DOUBLE = 1;
+	private static final int INT = 2;
+	private static final int LONG = 3;
+
+	/**
+	 * Builds an accessor for the given fields of a class. The fields may be
+	 * private, as long as the class is not in a named module which doesn't
+	 * open its package to the engine. Use
+	 * {@link #forFields(MethodHandles.Lookup, Class, String...)} otherwise.
+	 */
+	public static <T> TweenAccessor<T> forFields(Class<T> type, String... fields) {
+		try {
+			return forFields(MethodHandles.privateLookupIn(type, MethodHandles.lookup()), type, fields);
+		} catch (IllegalAccessException ex) {
+			throw new RuntimeException("The fields of " + type.getName() + " are not accessible", ex);
+		}
+	}
+
+	/**
+	 * Builds an accessor for the given fields of a class, found with the
+	 * given lookup. Pass MethodHandles.lookup() from the class itself to give
+	 * access to its private fields.
+	 */
+	public static <T> TweenAccessor<T> forFields(MethodHandles.Lookup lookup, Class<T> type, String... fields) {
+		if (fields.length == 0) throw new RuntimeException("At least one field is needed");
+		if (fields.length <= AccessorTemplate.MAX_FIELDS) return spinAccessor(lookup, type, fields);
+
+		VarHandle[] handles = new VarHandle[fields.length];
+		int[] kinds = new int[fields.length];
+
+		for (int i=0; i<fields.length; i++) {
+			try {
+				Class<?> fieldType = type.getDeclaredField(fields[i]).getType();
+				handles[i] = lookup.findVarHandle(type, fields[i], fieldType);
+				kinds[i] = kindOf(fieldType);
+			} catch (NoSuchFieldException ex) {
+				throw new RuntimeException("No field '" + fields[i] + "' in " + type.getName(), ex);
+			} catch (IllegalAccessException ex) {
+				throw new RuntimeException("The field '" + fields[i] + "' of " + type.getName() + " is not accessible", ex);
+			}
+		}
+
+		return new FieldAccessor<T>(handles, kinds);
+	}
+
+	// -------------------------------------------------------------------------
+	// Package API
+	// -------------------------------------------------------------------------
+
+	static int getFieldsCount(MethodHandles.Lookup lookup) {
+		try {
+			return MethodHandles.classDataAt(lookup, ConstantDescs.DEFAULT_NAME, Integer.class, 2 * AccessorTemplate.MAX_FIELDS);
+		} catch (IllegalAccessException ex) {
+			throw new RuntimeException(ex);
+		}
+	}
+
+	static MethodHandle getHandle(MethodHandles.Lookup lookup, int index) {
+		try {
+			return MethodHandles.classDataAt(lookup, ConstantDescs.DEFAULT_NAME, MethodHandle.class, index);
+		} catch (IllegalAccessException ex) {
+			throw new RuntimeException(ex);
+		}
+	}
+
+	static RuntimeException noField(int tweenType) {
+		return new RuntimeException("No field for the tween type " + tweenType);
+	}
+
+	static RuntimeException rethrow(Throwable ex) {
+		if (ex instanceof RuntimeException) return (RuntimeException) ex;
+		if (ex instanceof Error) throw (Error) ex;
+		return new RuntimeException(ex);
+	}
+
+	// -------------------------------------------------------------------------
+	// Helpers
+	// -------------------------------------------------------------------------
+
+	private static byte[] templateBytes;
+
+	/**
+	 * Defines a new copy of AccessorTemplate, holding the handles of the
+	 * given fields: getters first, then setters, then the count of fields.
+	 */
+	@SuppressWarnings("unchecked")
+	private static <T> TweenAccessor<T> spinAccessor(MethodHandles.Lookup lookup, Class<T> type, String[] fields) {
+		List<Object> classData = new ArrayList<Object>();
+		MethodType getterType = MethodType.methodType(float.class, Object.class);
+		MethodType setterType = MethodType.methodType(void.class, Object.class, float.class);
+
+		try {
+			MethodHandle missingGetter = MethodHandles.lookup().findStatic(ReflectiveAccessors.class, "missingGetter", MethodType.methodType(float.class, int.class, Object.class));
+			MethodHandle missingSetter = MethodHandles.lookup().findStatic(ReflectiveAccessors.class, "missingSetter", MethodType.methodType(void.class, int.class, Object.class, float.class));
+
+			for (int i=0; i<AccessorTemplate.MAX_FIELDS; i++) {
+				if (i < fields.length) classData.add(MethodHandles.explicitCastArguments(findGetter(lookup, type, fields[i]), getterType));
+				else classData.add(MethodHandles.insertArguments(missingGetter, 0, i+1));
+			}
+			for (int i=0; i<AccessorTemplate.MAX_FIELDS; i++) {
+				if (i < fields.length) classData.add(MethodHandles.explicitCastArguments(findSetter(lookup, type, fields[i]), setterType));
+				else classData.add(MethodHandles.insertArguments(missingSetter, 0, i+1));
+			}
+			classData.add(fields.length);
+
+			MethodHandles.Lookup accessorLookup = MethodHandles.lookup().defineHiddenClassWithClassData(getTemplateBytes(), classData, true);
+			return (TweenAccessor<T>) accessorLookup.findConstructor(accessorLookup.lookupClass(), MethodType.methodType(void.class)).invoke();
+		} catch (Throwable ex) {
+			throw rethrow(ex);
+		}
+	}
+
+	private static MethodHandle findGetter(MethodHandles.Lookup lookup, Class<?> type, String field) {
+		Class<?> fieldType = getFieldType(type, field);
+		kindOf(fieldType); // throws for the unsupported types
+		try {
+			return lookup.findGetter(type, field, fieldType);
+		} catch (ReflectiveOperationException ex) {
+			throw new RuntimeException("The field '" + field + "' of " + type.getName() + " is not accessible", ex);
+		}
+	}
+
+	private static MethodHandle findSetter(MethodHandles.Lookup lookup, Class<?> type, String field) {
+		Class<?> fieldType = getFieldType(type, field);
+		MethodHandle setter;
+		try {
+			setter = lookup.findSetter(type, field, fieldType);
+		} catch (ReflectiveOperationException ex) {
+			throw new RuntimeException("The field '" + field + "' of " + type.getName() + " is not accessible", ex);
+		}
+
+		// integer fields are rounded, as in FieldAccessor
+		try {
+			switch (kindOf(fieldType)) {
+				case INT:
+					MethodHandle roundInt = MethodHandles.lookup().findStatic(Math.class, "round", MethodType.methodType(int.class, float.class));
+					return MethodHandles.filterArguments(setter, 1, roundInt);
+				case LONG:
+					MethodHandle roundLong = MethodHandles.lookup().findStatic(Math.class, "round", MethodType.methodType(long.class, double.class));
+					return MethodHandles.filterArguments(setter, 1, roundLong.asType(MethodType.methodType(long.class, float.class)));
+				default:
+					return setter;
+			}
+		} catch (ReflectiveOperationException ex) {
+			throw new RuntimeException(ex);
+		}
+	}
+
+	private static Class<?> getFieldType(Class<?> type, String field) {
+		try {
+			return type.getDeclaredField(field).getType();
+		} catch (NoSuchFieldException ex) {
+			throw new RuntimeException("No field '" + field + "' in " + type.getName(), ex);
+		}
+	}
+
+	private static synchronized byte[] getTemplateBytes() throws IOException {
+		if (templateBytes != null) return templateBytes;
+
+		InputStream is = ReflectiveAccessors.class.getResourceAsStream("AccessorTemplate.class");
+		if (is == null) throw new IOException("AccessorTemplate.class not found");
+		try {
+			ByteArrayOutputStream os = new ByteArrayOutputStream();
+			byte[] buffer = new byte[4096];
+			for (int n; (n = is.read(buffer)) > 0;) os.write(buffer, 0, n);
+			templateBytes = os.toByteArray();
+			return templateBytes;
+		} finally {
+			is.close();
+		}
+	}
+
+	private static float missingGetter(int tweenType, Object target) {
+		throw noField(tweenType);
+	}
+
+	private static void missingSetter(int tweenType, Object target, float value) {
+		throw noField(tweenType);
+	}
+
+	private static int kindOf(Class<?> fieldType) {
+		if (fieldType == float.class) return FLOAT;
+		if (fieldType == double.class) return DOUBLE;
+		if (fieldType == int.class) return INT;
+		if (fieldType == long.class) return LONG;
+		throw new RuntimeException("Only float, double, int and long fields can be tweened, not " + fieldType.getName());
+	}
+
+	private static class FieldAccessor<T> implements TweenAccessor<T> {
+		private final VarHandle[] handles;
+		private final int[] kinds;
+
+		public FieldAccessor(VarHandle[] handles, int[] kinds) {
+			this.handles = handles;
+			this.kinds = kinds;
+		}
+
+		@Override
+		public int getValues(T target, int tweenType, float[] returnValues) {
+			if (tweenType == ALL_FIELDS) {
+				for (int i=0; i<handles.length; i++) returnValues[i] = get(i, target);
+				return handles.length;
+			}
+
+			returnValues[0] = get(tweenType-1, target);
+			return 1;
+		}
+
+		@Override
+		public void setValues(T target, int tweenType, float[] newValues) {
+			if (tweenType == ALL_FIELDS) {
+				for (int i=0; i<handles.length; i++) set(i, target, newValues[i]);
+				return;
+			}
+
+			set(tweenType-1, target, newValues[0]);
+		}
+
+		private float get(int field, Object target) {
+			VarHandle handle = handles[field];
+			switch (kinds[field]) {
+				case FLOAT: return (float) handle.get(target);
+				case DOUBLE: return (float) (double) handle.get(target);
+				case INT: return (int) handle.get(target);
+				case LONG: return (long) handle.get(target);
+				default: assert false; return 0;
+			}
+		}
+
+		private void set(int field, Object target, float value) {
+			VarHandle handle = handles[field];
+			switch (kinds[field]) {
+				case FLOAT: handle.set(target, value); break;
+				case DOUBLE: handle.set(target, (double) value); break;
+				case INT: handle.set(target, Math.round(value)); break;
+				case LONG: handle.set(target, Math.round((double) value)); break;
+				default: assert false; break;
+			}
+		}
+	}
+}
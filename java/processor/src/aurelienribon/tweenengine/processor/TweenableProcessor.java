@@ -0,0 +1,290 @@
+package aurelienribon.tweenengine.processor;
+
+import aurelienribon.tweenengine.Tweenable;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+
+/**
+ * Annotation processor generating a TweenAccessor for every class with
+ * {@link Tweenable} fields or getters. The accessors are plain Java code,
+ * with one straight-line case per tween type, so they cost nothing at
+ * startup and work on every platform, GWT included.
+ * <p/>
+ *
+ * The processor is registered as a service, so adding the processor jar to
+ * the compilation classpath (or to the processor path) is enough.
+ *
+ * @see Tweenable
+ * @author Aurelien Ribon | http://www.aurelienribon.com/
+ */
+@SupportedAnnotationTypes("aurelienribon.tweenengine.Tweenable")
+public class TweenableProcessor extends AbstractProcessor {
+
+	@Override
+	public SourceVersion getSupportedSourceVersion() {
+		return SourceVersion.latestSupported();
+	}
+
+	@Override
+	public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+		Map<TypeElement, List<Attribute>> attributesByType = new LinkedHashMap<TypeElement, List<Attribute>>();
+
+		for (Element element : roundEnv.getElementsAnnotatedWith(Tweenable.class)) {
+			Attribute attribute = createAttribute(element);
+			if (attribute == null) continue;
+
+			TypeElement type = (TypeElement) element.getEnclosingElement();
+			List<Attribute> attributes = attributesByType.get(type);
+			if (attributes == null) {
+				attributes = new ArrayList<Attribute>();
+				attributesByType.put(type, attributes);
+			}
+			attributes.add(attribute);
+		}
+
+		for (Map.Entry<TypeElement, List<Attribute>> entry : attributesByType.entrySet()) {
+			if (isValid(entry.getKey(), entry.getValue())) generate(entry.getKey(), entry.getValue());
+		}
+
+		return true;
+	}
+
+	// -------------------------------------------------------------------------
+	// Attributes
+	// -------------------------------------------------------------------------
+
+	private static class Attribute {
+		public final Element element;
+		public final String constant;
+		public final TypeKind kind;
+		public final String getter;
+		public final String setter;
+
+		public Attribute(Element element, String constant, TypeKind kind, String getter, String setter) {
+			this.element = element;
+			this.constant = constant;
+			this.kind = kind;
+			this.getter = getter;
+			this.setter = setter;
+		}
+	}
+
+	private Attribute createAttribute(Element element) {
+		if (element.getModifiers().contains(Modifier.PRIVATE)) return error(element, "@Tweenable members can't be private");
+		if (element.getModifiers().contains(Modifier.STATIC)) return error(element, "@Tweenable members can't be static");
+
+		String name = element.getAnnotation(Tweenable.class).value();
+
+		if (element.getKind() == ElementKind.FIELD) {
+			if (element.getModifiers().contains(Modifier.FINAL)) return error(element, "@Tweenable fields can't be final");
+			TypeKind kind = element.asType().getKind();
+			if (!isSupported(kind)) return error(element, "@Tweenable fields must be float, double, int or long ones");
+
+			String field = element.getSimpleName().toString();
+			if (name.length() == 0) name = toConstantName(field);
+			return new Attribute(element, name, kind, field, field);
+		}
+
+		ExecutableElement getter = (ExecutableElement) element;
+		String getterName = getter.getSimpleName().toString();
+		TypeKind kind = getter.getReturnType().getKind();
+
+		if (!getterName.startsWith("get") || getterName.length() == 3 || !getter.getParameters().isEmpty())
+			return error(element, "@Tweenable methods must be getters, like getX()");
+		if (!isSupported(kind)) return error(element, "@Tweenable getters must return a float, double, int or long");
+
+		String property = getterName.substring(3);
+		String setterName = "set" + property;
+		TypeElement type = (TypeElement) element.getEnclosingElement();
+		if (!hasSetter(type, setterName, getter.getReturnType()))
+			return error(element, "No " + setterName + "(" + getter.getReturnType() + ") method found for @Tweenable getter " + getterName + "()");
+
+		if (name.length() == 0) name = toConstantName(property);
+		return new Attribute(element, name, kind, getterName + "()", setterName);
+	}
+
+	private boolean hasSetter(TypeElement type, String setterName, TypeMirror valueType) {
+		List<ExecutableElement> methods = ElementFilter.methodsIn(processingEnv.getElementUtils().getAllMembers(type));
+		for (ExecutableElement method : methods) {
+			if (!method.getSimpleName().contentEquals(setterName)) continue;
+			if (method.getModifiers().contains(Modifier.PRIVATE) || method.getModifiers().contains(Modifier.STATIC)) continue;
+			if (method.getParameters().size() != 1) continue;
+			if (processingEnv.getTypeUtils().isSameType(method.getParameters().get(0).asType(), valueType)) return true;
+		}
+		return false;
+	}
+
+	private boolean isValid(TypeElement type, List<Attribute> attributes) {
+		boolean isValid = true;
+
+		if (type.getModifiers().contains(Modifier.PRIVATE)
+			|| (type.getNestingKind().isNested() && !type.getModifiers().contains(Modifier.STATIC))) {
+			error(type, "Classes with @Tweenable members must not be private or inner classes");
+			isValid = false;
+		}
+
+		for (int i=0; i<attributes.size(); i++) {
+			Attribute attribute = attributes.get(i);
+			if (attribute.constant.equals("ALL")) {
+				error(attribute.element, "ALL is reserved for the combination of every attribute");
+				isValid = false;
+			}
+			for (int ii=0; ii<i; ii++) {
+				if (attributes.get(ii).constant.equals(attribute.constant)) {
+					error(attribute.element, "Duplicate tween type name: " + attribute.constant);
+					isValid = false;
+				}
+			}
+		}
+
+		return isValid;
+	}
+
+	// -------------------------------------------------------------------------
+	// Generation
+	// -------------------------------------------------------------------------
+
+	private void generate(TypeElement type, List<Attribute> attributes) {
+		PackageElement pkg = processingEnv.getElementUtils().getPackageOf(type);
+		String packageName = pkg.isUnnamed() ? "" : pkg.getQualifiedName().toString();
+		String targetName = type.getQualifiedName().toString();
+		String accessorName = getAccessorName(type);
+
+		StringBuilder sb = new StringBuilder();
+		if (packageName.length() > 0) sb.append("package ").append(packageName).append(";\n\n");
+		sb.append("import aurelienribon.tweenengine.Tween;\n");
+		sb.append("import aurelienribon.tweenengine.TweenAccessor;\n\n");
+		sb.append("/**\n");
+		sb.append(" * TweenAccessor generated from the @Tweenable members of ").append(type.getSimpleName()).append(".\n");
+		sb.append(" */\n");
+		sb.append("public class ").append(accessorName).append(" implements TweenAccessor<").append(targetName).append("> {\n");
+
+		sb.append("\tpublic static final int ALL = 0;\n");
+		for (int i=0; i<attributes.size(); i++) {
+			sb.append("\tpublic static final int ").append(attributes.get(i).constant).append(" = ").append(i+1).append(";\n");
+		}
+
+		sb.append("\n");
+		sb.append("\t/**\n");
+		sb.append("\t * Registers this accessor with the ").append(type.getSimpleName()).append(" class.\n");
+		sb.append("\t */\n");
+		sb.append("\tpublic static void register() {\n");
+		sb.append("\t\tTween.registerAccessor(").append(targetName).append(".class, new ").append(accessorName).append("());\n");
+		sb.append("\t}\n\n");
+
+		sb.append("\t@Override\n");
+		sb.append("\tpublic int getValues(").append(targetName).append(" target, int tweenType, float[] returnValues) {\n");
+		sb.append("\t\tswitch (tweenType) {\n");
+		sb.append("\t\t\tcase ALL:\n");
+		for (int i=0; i<attributes.size(); i++) {
+			sb.append("\t\t\t\treturnValues[").append(i).append("] = ").append(read(attributes.get(i))).append(";\n");
+		}
+		sb.append("\t\t\t\treturn ").append(attributes.size()).append(";\n");
+		for (Attribute attribute : attributes) {
+			sb.append("\t\t\tcase ").append(attribute.constant).append(": returnValues[0] = ").append(read(attribute)).append("; return 1;\n");
+		}
+		sb.append("\t\t\tdefault: assert false; return -1;\n");
+		sb.append("\t\t}\n");
+		sb.append("\t}\n\n");
+
+		sb.append("\t@Override\n");
+		sb.append("\tpublic void setValues(").append(targetName).append(" target, int tweenType, float[] newValues) {\n");
+		sb.append("\t\tswitch (tweenType) {\n");
+		sb.append("\t\t\tcase ALL:\n");
+		for (int i=0; i<attributes.size(); i++) {
+			sb.append("\t\t\t\t").append(write(attributes.get(i), "newValues[" + i + "]")).append(";\n");
+		}
+		sb.append("\t\t\t\tbreak;\n");
+		for (Attribute attribute : attributes) {
+			sb.append("\t\t\tcase ").append(attribute.constant).append(": ").append(write(attribute, "newValues[0]")).append("; break;\n");
+		}
+		sb.append("\t\t\tdefault: assert false; break;\n");
+		sb.append("\t\t}\n");
+		sb.append("\t}\n");
+		sb.append("}\n");
+
+		String qualifiedName = packageName.length() > 0 ? packageName + "." + accessorName : accessorName;
+		try {
+			Writer writer = processingEnv.getFiler().createSourceFile(qualifiedName, type).openWriter();
+			try {
+				writer.write(sb.toString());
+			} finally {
+				writer.close();
+			}
+		} catch (IOException ex) {
+			error(type, "Unable to write " + qualifiedName + ": " + ex.getMessage());
+		}
+	}
+
+	private String read(Attribute attribute) {
+		String value = "target." + attribute.getter;
+		return attribute.kind == TypeKind.FLOAT ? value : "(float) " + value;
+	}
+
+	private String write(Attribute attribute, String value) {
+		switch (attribute.kind) {
+			case INT: value = "Math.round(" + value + ")"; break;
+			case LONG: value = "Math.round((double) " + value + ")"; break;
+			default: break;
+		}
+
+		if (attribute.element.getKind() == ElementKind.FIELD) return "target." + attribute.setter + " = " + value;
+		return "target." + attribute.setter + "(" + value + ")";
+	}
+
+	// -------------------------------------------------------------------------
+	// Helpers
+	// -------------------------------------------------------------------------
+
+	private static boolean isSupported(TypeKind kind) {
+		return kind == TypeKind.FLOAT || kind == TypeKind.DOUBLE || kind == TypeKind.INT || kind == TypeKind.LONG;
+	}
+
+	private static String getAccessorName(TypeElement type) {
+		String name = type.getSimpleName().toString();
+		Element enclosing = type.getEnclosingElement();
+		while (enclosing.getKind().isClass() || enclosing.getKind().isInterface()) {
+			name = enclosing.getSimpleName() + "_" + name;
+			enclosing = enclosing.getEnclosingElement();
+		}
+		return name + "Accessor";
+	}
+
+	/**
+	 * Converts a camel case name to upper case with underscores, like "scaleX"
+	 * to "SCALE_X".
+	 */
+	private static String toConstantName(String name) {
+		StringBuilder sb = new StringBuilder();
+		for (int i=0; i<name.length(); i++) {
+			char c = name.charAt(i);
+			if (i > 0 && Character.isUpperCase(c) && !Character.isUpperCase(name.charAt(i-1))) sb.append('_');
+			sb.append(Character.toUpperCase(c));
+		}
+		return sb.toString();
+	}
+
+	private Attribute error(Element element, String msg) {
+		processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, msg, element);
+		return null;
+	}
+}
@@ -0,0 +1,212 @@
+package aurelienribon.tweenengine.processor;
+
+import static aurelienribon.tweenengine.Assert.*;
+import aurelienribon.tweenengine.TweenAccessor;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.reflect.Field;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+/**
+ * Compiles small fixtures with the processor, then checks the constants of
+ * the generated accessors, reads and writes values through them, and checks
+ * the errors reported for the unsupported members. Requires a JDK, since
+ * the fixtures are compiled with the system Java compiler.
+ */
+public class TweenableProcessorTest {
+	private static final String SPRITE = ""
+		+ "package fixture;\n"
+		+ "import aurelienribon.tweenengine.Tweenable;\n"
+		+ "public class Sprite {\n"
+		+ "	@Tweenable public float x;\n"
+		+ "	@Tweenable int count;\n"
+		+ "	@Tweenable long ticks;\n"
+		+ "	@Tweenable double scaleX;\n"
+		+ "	private float alpha;\n"
+		+ "	@Tweenable(\"OPACITY\") public float getAlpha() {return alpha;}\n"
+		+ "	public void setAlpha(float alpha) {this.alpha = alpha;}\n"
+		+ "	public static class Part {\n"
+		+ "		@Tweenable float y;\n"
+		+ "	}\n"
+		+ "}\n";
+
+	public static void testGeneratedConstants() throws Exception {
+		Compilation compilation = compile("Sprite", SPRITE);
+		assertTrue("compiled: " + compilation.diagnostics, compilation.isSuccess);
+
+		Class<?> accessor = compilation.load("fixture.SpriteAccessor");
+		assertEquals("ALL", 0, getConstant(accessor, "ALL"));
+		assertEquals("X", 1, getConstant(accessor, "X"));
+		assertEquals("COUNT", 2, getConstant(accessor, "COUNT"));
+		assertEquals("TICKS", 3, getConstant(accessor, "TICKS"));
+		assertEquals("SCALE_X", 4, getConstant(accessor, "SCALE_X"));
+		assertEquals("OPACITY", 5, getConstant(accessor, "OPACITY"));
+
+		Class<?> nestedAccessor = compilation.load("fixture.Sprite_PartAccessor");
+		assertEquals("nested ALL", 0, getConstant(nestedAccessor, "ALL"));
+		assertEquals("nested Y", 1, getConstant(nestedAccessor, "Y"));
+		compilation.dispose();
+	}
+
+	public static void testRoundTrip() throws Exception {
+		Compilation compilation = compile("Sprite", SPRITE);
+		assertTrue("compiled: " + compilation.diagnostics, compilation.isSuccess);
+
+		Class<?> accessorClass = compilation.load("fixture.SpriteAccessor");
+		TweenAccessor<Object> accessor = createAccessor(accessorClass);
+		Object sprite = compilation.load("fixture.Sprite").newInstance();
+		float[] values = new float[5];
+
+		accessor.setValues(sprite, 0, new float[] {1.5f, 2.6f, 3.4f, 0.25f, 0.75f});
+		assertEquals("values", 5, accessor.getValues(sprite, 0, values));
+		assertEquals("field", 1.5f, values[0]);
+		assertEquals("int rounded", 3f, values[1]);
+		assertEquals("long rounded", 3f, values[2]);
+		assertEquals("double", 0.25f, values[3]);
+		assertEquals("getter/setter", 0.75f, values[4]);
+
+		accessor.setValues(sprite, getConstant(accessorClass, "COUNT"), new float[] {-7.6f});
+		accessor.setValues(sprite, getConstant(accessorClass, "TICKS"), new float[] {1e10f});
+		accessor.setValues(sprite, getConstant(accessorClass, "OPACITY"), new float[] {0.5f});
+		assertEquals("int", -8, getField(sprite, "count"));
+		assertEquals("long", 10000000000L, getField(sprite, "ticks"));
+		assertEquals("single value", 1, accessor.getValues(sprite, getConstant(accessorClass, "OPACITY"), values));
+		assertEquals("getter", 0.5f, values[0]);
+
+		Class<?> nestedClass = compilation.load("fixture.Sprite_PartAccessor");
+		TweenAccessor<Object> nestedAccessor = createAccessor(nestedClass);
+		Object part = compilation.load("fixture.Sprite$Part").newInstance();
+		nestedAccessor.setValues(part, getConstant(nestedClass, "Y"), new float[] {4});
+		assertEquals("nested", 1, nestedAccessor.getValues(part, 0, values));
+		assertEquals("nested value", 4f, values[0]);
+		compilation.dispose();
+	}
+
+	public static void testPrivateMember() throws Exception {
+		checkError("@Tweenable private float x;", "@Tweenable members can't be private");
+	}
+
+	public static void testFinalField() throws Exception {
+		checkError("@Tweenable final float x = 0;", "@Tweenable fields can't be final");
+	}
+
+	public static void testDuplicateName() throws Exception {
+		checkError("@Tweenable(\"X\") float a; @Tweenable float x;", "Duplicate tween type name: X");
+	}
+
+	// -------------------------------------------------------------------------
+	// Helpers
+	// -------------------------------------------------------------------------
+
+	private static class Compilation {
+		public final File dir;
+		public final boolean isSuccess;
+		public final List<Diagnostic<? extends JavaFileObject>> diagnostics;
+		private final URLClassLoader loader;
+
+		public Compilation(File dir, boolean isSuccess, List<Diagnostic<? extends JavaFileObject>> diagnostics) throws IOException {
+			this.dir = dir;
+			this.isSuccess = isSuccess;
+			this.diagnostics = diagnostics;
+			URL[] urls = {new File(dir, "classes").toURI().toURL()};
+			this.loader = new URLClassLoader(urls, TweenableProcessorTest.class.getClassLoader());
+		}
+
+		public Class<?> load(String name) throws ClassNotFoundException {
+			return loader.loadClass(name);
+		}
+
+		public void dispose() {
+			delete(dir);
+		}
+	}
+
+	private static Compilation compile(String className, String source) throws IOException {
+		File dir = File.createTempFile("tweenable", "");
+		if (!dir.delete() || !dir.mkdir()) throw new IOException("Unable to create " + dir);
+		File srcDir = new File(dir, "src/fixture");
+		File classesDir = new File(dir, "classes");
+		File generatedDir = new File(dir, "generated");
+		srcDir.mkdirs();
+		classesDir.mkdirs();
+		generatedDir.mkdirs();
+
+		File file = new File(srcDir, className + ".java");
+		Writer writer = new FileWriter(file);
+		try {
+			writer.write(source);
+		} finally {
+			writer.close();
+		}
+
+		JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+		if (compiler == null) throw new RuntimeException("The tests of the processor must run on a JDK");
+		DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<JavaFileObject>();
+		StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics, null, null);
+
+		List<String> options = Arrays.asList(
+			"-classpath", System.getProperty("java.class.path"),
+			"-d", classesDir.getPath(),
+			"-s", generatedDir.getPath());
+		JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, diagnostics, options, null,
+			fileManager.getJavaFileObjects(file));
+		task.setProcessors(Arrays.asList(new TweenableProcessor()));
+		boolean isSuccess = task.call();
+		fileManager.close();
+
+		return new Compilation(dir, isSuccess, diagnostics.getDiagnostics());
+	}
+
+	private static void checkError(String members, String message) throws Exception {
+		String source = ""
+			+ "package fixture;\n"
+			+ "import aurelienribon.tweenengine.Tweenable;\n"
+			+ "public class Invalid {\n"
+			+ "	" + members + "\n"
+			+ "}\n";
+
+		Compilation compilation = compile("Invalid", source);
+		assertTrue("failed", !compilation.isSuccess);
+
+		List<String> errors = new ArrayList<String>();
+		for (Diagnostic<? extends JavaFileObject> diagnostic : compilation.diagnostics) {
+			if (diagnostic.getKind() == Diagnostic.Kind.ERROR) errors.add(diagnostic.getMessage(null));
+		}
+		assertTrue("error \"" + message + "\" in " + errors, errors.contains(message));
+		assertTrue("no accessor", !new File(compilation.dir, "generated/fixture/InvalidAccessor.java").exists());
+		compilation.dispose();
+	}
+
+	@SuppressWarnings("unchecked")
+	private static TweenAccessor<Object> createAccessor(Class<?> accessorClass) throws Exception {
+		return (TweenAccessor<Object>) accessorClass.newInstance();
+	}
+
+	private static int getConstant(Class<?> accessorClass, String name) throws Exception {
+		return accessorClass.getField(name).getInt(null);
+	}
+
+	private static long getField(Object target, String name) throws Exception {
+		Field field = target.getClass().getDeclaredField(name);
+		field.setAccessible(true);
+		return field.getLong(target);
+	}
+
+	private static void delete(File file) {
+		File[] children = file.listFiles();
+		if (children != null) for (File child : children) delete(child);
+		file.delete();
+	}
+}
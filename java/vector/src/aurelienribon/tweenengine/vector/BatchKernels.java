@@ -0,0 +1,26 @@
+package aurelienribon.tweenengine.vector;
+
+import aurelienribon.tweenengine.BatchKernel;
+import aurelienribon.tweenengine.ScalarBatchKernel;
+
+/**
+ * Selects the best {@link BatchKernel} available at runtime.
+ *
+ * @author Aurelien Ribon | http://www.aurelienribon.com/
+ */
+public class BatchKernels {
+
+	/**
+	 * Returns a {@link VectorBatchKernel} if the Vector API is available and
+	 * the processor has SIMD instructions, or the {@link ScalarBatchKernel}
+	 * otherwise.
+	 */
+	public static BatchKernel create() {
+		try {
+			if (VectorBatchKernel.SPECIES.length() > 1) return new VectorBatchKernel();
+		} catch (LinkageError ex) {
+			// jdk.incubator.vector is not available
+		}
+		return ScalarBatchKernel.INSTANCE;
+	}
+}
@@ -0,0 +1,175 @@
+package aurelienribon.tweenengine.vector;
+
+import aurelienribon.tweenengine.BatchKernel;
+import aurelienribon.tweenengine.ScalarBatchKernel;
+import aurelienribon.tweenengine.TweenEquation;
+import aurelienribon.tweenengine.equations.Cubic;
+import aurelienribon.tweenengine.equations.Linear;
+import aurelienribon.tweenengine.equations.Quad;
+import aurelienribon.tweenengine.equations.Quart;
+import aurelienribon.tweenengine.equations.Quint;
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * A {@link BatchKernel} using the SIMD instructions of the processor, through
+ * the incubating Vector API of the JDK (jdk.incubator.vector module, which
+ * must be added to the application with "--add-modules
+ * jdk.incubator.vector").
+ * <p/>
+ *
+ * It evaluates the Linear, Quad, Cubic, Quart and Quint equations, with the
+ * exact same operations as the scalar equations, so that both kernels give
+ * the same results. The other equations are evaluated by the
+ * {@link ScalarBatchKernel}. Use {@link BatchKernels#create()} to get this
+ * kernel only if the Vector API is available.
+ *
+ * @see aurelienribon.tweenengine.TweenBatch
+ * @author Aurelien Ribon | http://www.aurelienribon.com/
+ */
+public class VectorBatchKernel implements BatchKernel {
+	static final VectorSpecies<Float> SPECIES = FloatVector.SPECIES_PREFERRED;
+
+	private static final int NONE = 0;
+	private static final int LINEAR = 1;
+	private static final int QUAD_IN = 2;
+	private static final int QUAD_OUT = 3;
+	private static final int QUAD_INOUT = 4;
+	private static final int CUBIC_IN = 5;
+	private static final int CUBIC_OUT = 6;
+	private static final int CUBIC_INOUT = 7;
+	private static final int QUART_IN = 8;
+	private static final int QUART_OUT = 9;
+	private static final int QUART_INOUT = 10;
+	private static final int QUINT_IN = 11;
+	private static final int QUINT_OUT = 12;
+	private static final int QUINT_INOUT = 13;
+
+	// Gather index maps, by attributes count
+	private final int[][] indexMaps = new int[SPECIES.length()+1][];
+
+	public VectorBatchKernel() {
+		int lanes = SPECIES.length();
+		for (int attrsCnt=1; attrsCnt<=lanes; attrsCnt++) {
+			if (lanes % attrsCnt != 0) continue;
+			indexMaps[attrsCnt] = new int[lanes];
+			for (int i=0; i<lanes; i++) indexMaps[attrsCnt][i] = i / attrsCnt;
+		}
+	}
+
+	@Override
+	public boolean supports(TweenEquation equation) {
+		return codeOf(equation) != NONE;
+	}
+
+	@Override
+	public void ease(TweenEquation equation, float[] ratios, int fromIdx, int toIdx) {
+		int code = codeOf(equation);
+		if (code == LINEAR) return;
+		if (code == NONE) {
+			ScalarBatchKernel.INSTANCE.ease(equation, ratios, fromIdx, toIdx);
+			return;
+		}
+
+		int i = fromIdx;
+		for (int n=fromIdx+SPECIES.loopBound(toIdx-fromIdx); i<n; i+=SPECIES.length()) {
+			FloatVector t = FloatVector.fromArray(SPECIES, ratios, i);
+			compute(code, t).intoArray(ratios, i);
+		}
+
+		for (; i<toIdx; i++) {
+			ratios[i] = equation.compute(ratios[i]);
+		}
+	}
+
+	@Override
+	public void interpolate(float[] ratios, float[] startValues, float[] targetValues, float[] values, int attrsCnt, int fromSlot, int toSlot) {
+		int[] indexMap = attrsCnt < indexMaps.length ? indexMaps[attrsCnt] : null;
+		if (indexMap == null) {
+			ScalarBatchKernel.INSTANCE.interpolate(ratios, startValues, targetValues, values, attrsCnt, fromSlot, toSlot);
+			return;
+		}
+
+		int lanes = SPECIES.length();
+		int slotsPerVector = lanes / attrsCnt;
+		int slot = fromSlot;
+
+		for (int n=fromSlot+(toSlot-fromSlot)/slotsPerVector*slotsPerVector; slot<n; slot+=slotsPerVector) {
+			int offset = slot * attrsCnt;
+			FloatVector t = attrsCnt == 1
+				? FloatVector.fromArray(SPECIES, ratios, slot)
+				: FloatVector.fromArray(SPECIES, ratios, slot, indexMap, 0);
+			FloatVector start = FloatVector.fromArray(SPECIES, startValues, offset);
+			FloatVector target = FloatVector.fromArray(SPECIES, targetValues, offset);
+			start.add(t.mul(target.sub(start))).intoArray(values, offset);
+		}
+
+		ScalarBatchKernel.INSTANCE.interpolate(ratios, startValues, targetValues, values, attrsCnt, slot, toSlot);
+	}
+
+	// -------------------------------------------------------------------------
+	// Helpers
+	// -------------------------------------------------------------------------
+
+	private static int codeOf(TweenEquation equation) {
+		if (equation == Linear.INOUT) return LINEAR;
+		if (equation == Quad.IN) return QUAD_IN;
+		if (equation == Quad.OUT) return QUAD_OUT;
+		if (equation == Quad.INOUT) return QUAD_INOUT;
+		if (equation == Cubic.IN) return CUBIC_IN;
+		if (equation == Cubic.OUT) return CUBIC_OUT;
+		if (equation == Cubic.INOUT) return CUBIC_INOUT;
+		if (equation == Quart.IN) return QUART_IN;
+		if (equation == Quart.OUT) return QUART_OUT;
+		if (equation == Quart.INOUT) return QUART_INOUT;
+		if (equation == Quint.IN) return QUINT_IN;
+		if (equation == Quint.OUT) return QUINT_OUT;
+		if (equation == Quint.INOUT) return QUINT_INOUT;
+		return NONE;
+	}
+
+	private static FloatVector compute(int code, FloatVector t) {
+		switch (code) {
+			case QUAD_IN: return pow(t, 2);
+			case QUAD_OUT: return t.neg().mul(t.sub(2));
+			case CUBIC_IN: return pow(t, 3);
+			case CUBIC_OUT: return pow(t.sub(1), 3).add(1);
+			case QUART_IN: return pow(t, 4);
+			case QUART_OUT: return pow(t.sub(1), 4).sub(1).neg();
+			case QUINT_IN: return pow(t, 5);
+			case QUINT_OUT: return pow(t.sub(1), 5).add(1);
+
+			case QUAD_INOUT: {
+				FloatVector u = t.mul(2);
+				FloatVector v = u.sub(1);
+				return inOut(u, 2, v.mul(v.sub(2)).sub(1).mul(-0.5f));
+			}
+			case CUBIC_INOUT: return inOut(t.mul(2), 3, pow(t.mul(2).sub(2), 3).add(2).mul(0.5f));
+			case QUART_INOUT: return inOut(t.mul(2), 4, pow(t.mul(2).sub(2), 4).sub(2).mul(-0.5f));
+			case QUINT_INOUT: return inOut(t.mul(2), 5, pow(t.mul(2).sub(2), 5).add(2).mul(0.5f));
+
+			default: assert false; return t;
+		}
+	}
+
+	/**
+	 * Computes t^n by successive multiplications, like the scalar equations.
+	 */
+	private static FloatVector pow(FloatVector t, int n) {
+		FloatVector p = t;
+		for (int i=1; i<n; i++) p = p.mul(t);
+		return p;
+	}
+
+	/**
+	 * Computes 0.5*u^n where u is lower than 1, and returns the given second
+	 * half values elsewhere.
+	 */
+	private static FloatVector inOut(FloatVector u, int n, FloatVector secondHalf) {
+		FloatVector firstHalf = u.mul(0.5f);
+		for (int i=1; i<n; i++) firstHalf = firstHalf.mul(u);
+		VectorMask<Float> isFirstHalf = u.lt(1);
+		return secondHalf.blend(firstHalf, isFirstHalf);
+	}
+}
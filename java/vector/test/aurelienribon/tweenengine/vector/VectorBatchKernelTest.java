@@ -0,0 +1,120 @@
+package aurelienribon.tweenengine.vector;
+
+import static aurelienribon.tweenengine.Assert.*;
+import aurelienribon.tweenengine.Tween;
+import aurelienribon.tweenengine.TweenAccessor;
+import aurelienribon.tweenengine.TweenBatch;
+import aurelienribon.tweenengine.TweenEquation;
+import aurelienribon.tweenengine.equations.*;
+import java.util.Random;
+
+/**
+ * Checks that a TweenBatch using the vector kernel produces exactly the
+ * values of the equivalent tweens, which are computed one by one by the
+ * scalar equations.
+ */
+public class VectorBatchKernelTest {
+	private static final TweenEquation[] equations = {
+		Linear.INOUT,
+		Quad.IN, Quad.OUT, Quad.INOUT,
+		Cubic.IN, Cubic.OUT, Cubic.INOUT,
+		Quart.IN, Quart.OUT, Quart.INOUT,
+		Quint.IN, Quint.OUT, Quint.INOUT,
+		Sine.INOUT, Back.OUT // not supported, evaluated by the scalar kernel
+	};
+
+	public static class Values {
+		public final float[] values;
+
+		public Values(int length) {
+			values = new float[length];
+		}
+	}
+
+	public static class ValuesAccessor implements TweenAccessor<Values> {
+		@Override public int getValues(Values target, int tweenType, float[] returnValues) {
+			System.arraycopy(target.values, 0, returnValues, 0, target.values.length);
+			return target.values.length;
+		}
+
+		@Override public void setValues(Values target, int tweenType, float[] newValues) {
+			System.arraycopy(newValues, 0, target.values, 0, target.values.length);
+		}
+	}
+
+	public static void testEquations() {
+		VectorBatchKernel kernel = new VectorBatchKernel();
+		float[] ratios = new float[1001];
+		float[] expected = new float[ratios.length];
+
+		for (TweenEquation equation : equations) {
+			for (int i=0; i<ratios.length; i++) ratios[i] = expected[i] = i / 1000f;
+			for (int i=0; i<ratios.length; i++) expected[i] = equation.compute(expected[i]);
+			kernel.ease(equation, ratios, 0, ratios.length);
+			for (int i=0; i<ratios.length; i++) assertEquals(equation + " at " + i / 1000f, expected[i], ratios[i]);
+		}
+	}
+
+	public static void testBatchAgainstTweens() {
+		Tween.registerAccessor(Values.class, new ValuesAccessor());
+		Tween.setCombinedAttributesLimit(5);
+		Random rand = new Random(3);
+
+		for (int attrsCnt=1; attrsCnt<=5; attrsCnt++) {
+			checkSameValues(rand, attrsCnt, 40 * equations.length);
+		}
+	}
+
+	// -------------------------------------------------------------------------
+	// Helpers
+	// -------------------------------------------------------------------------
+
+	private static void checkSameValues(Random rand, int attrsCnt, int slotsCnt) {
+		TweenBatch batch = new TweenBatch(slotsCnt, attrsCnt);
+		batch.setKernel(new VectorBatchKernel());
+		Values[] targets = new Values[slotsCnt];
+		Tween[] tweens = new Tween[slotsCnt];
+		float[] startValues = new float[attrsCnt];
+		float[] targetValues = new float[attrsCnt];
+
+		for (int i=0; i<slotsCnt; i++) {
+			// runs of slots sharing an equation, of various lengths
+			TweenEquation equation = equations[i / 40 % equations.length];
+			float duration = 0.25f + rand.nextInt(8) / 4f;
+			float delay = rand.nextInt(3) / 4f;
+			int repeatCnt = rand.nextInt(3);
+			boolean isYoyo = rand.nextBoolean();
+			for (int ii=0; ii<attrsCnt; ii++) {
+				startValues[ii] = rand.nextFloat() * 200 - 100;
+				targetValues[ii] = rand.nextFloat() * 200 - 100;
+			}
+
+			targets[i] = new Values(attrsCnt);
+			System.arraycopy(startValues, 0, targets[i].values, 0, attrsCnt);
+			tweens[i] = Tween.to(targets[i], 0, duration).target(targetValues).ease(equation).delay(delay);
+			if (isYoyo) tweens[i].repeatYoyo(repeatCnt, 0);
+			else tweens[i].repeat(repeatCnt, 0);
+			tweens[i].start();
+
+			int slot = batch.add(duration);
+			batch.from(slot, startValues).target(slot, targetValues).ease(slot, equation).delay(slot, delay);
+			if (isYoyo) batch.repeatYoyo(slot, repeatCnt, 0);
+			else batch.repeat(slot, repeatCnt, 0);
+		}
+
+		for (int frame=0; frame<300; frame++) {
+			float delta = frame % 50 < 40 ? 1/60f : -1/30f;
+			batch.update(delta);
+
+			for (int i=0; i<slotsCnt; i++) {
+				tweens[i].update(delta);
+				for (int ii=0; ii<attrsCnt; ii++) {
+					String msg = attrsCnt + " attributes, slot " + i + ", value " + ii + ", frame " + frame;
+					assertEquals(msg, targets[i].values[ii], batch.getValues()[i*attrsCnt + ii]);
+				}
+			}
+		}
+
+		for (Tween tween : tweens) tween.free();
+	}
+}